@@ -0,0 +1,81 @@
+package com.bmo.reactivemoviesinfoservice.benchmark;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MovieInfoEncodingBenchmark {
+
+    // reported next to the timing as the encodeStream:bytesPerMovieInfo secondary result
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+
+        public double bytesPerMovieInfo;
+    }
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"none", "gzip"})
+    private String compression;
+
+    @Param({"100"})
+    private int listSize;
+
+    private ObjectWriter writer;
+
+    private List<MovieInfo> moviesInfo;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ObjectMapper objectMapper = switch (format) {
+            case "json" -> builder.build();
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            default -> throw new IllegalArgumentException("unknown format " + format);
+        };
+        writer = format.equals("json")
+                ? objectMapper.writer().withRootValueSeparator("\n")
+                : objectMapper.writer();
+        moviesInfo = MovieInfoFixtures.moviesInfo(listSize);
+    }
+
+    @Benchmark
+    public byte[] encodeStream(EncodedSize encodedSize) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (OutputStream out = compression.equals("gzip") ? new GZIPOutputStream(bytes) : bytes;
+             SequenceWriter sequenceWriter = writer.writeValues(out)) {
+            sequenceWriter.writeAll(moviesInfo);
+        }
+        byte[] encoded = bytes.toByteArray();
+        encodedSize.bytesPerMovieInfo = (double) encoded.length / listSize;
+        return encoded;
+    }
+}
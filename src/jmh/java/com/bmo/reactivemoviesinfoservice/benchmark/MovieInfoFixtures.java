@@ -0,0 +1,30 @@
+package com.bmo.reactivemoviesinfoservice.benchmark;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+final class MovieInfoFixtures {
+
+    private MovieInfoFixtures() {
+    }
+
+    static MovieInfo movieInfo(int index) {
+        return MovieInfo.builder()
+                .id(String.format("%024x", index))
+                .name("Start Wars " + index)
+                .year(1977 + index % 50)
+                .cast(List.of("Luke", "Obiwan", "Leia", "Han"))
+                .releaseDate(LocalDate.parse("1977-01-01").plusDays(index))
+                .version(0L)
+                .build();
+    }
+
+    static List<MovieInfo> moviesInfo(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(MovieInfoFixtures::movieInfo)
+                .toList();
+    }
+}
@@ -0,0 +1,77 @@
+package com.bmo.reactivemoviesinfoservice.benchmark;
+
+import com.bmo.reactivemoviesinfoservice.domain.ErrorResponse;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MovieInfoSerializationBenchmark {
+
+    @Param({"100"})
+    private int listSize;
+
+    private ObjectMapper objectMapper;
+
+    private ObjectWriter ndjsonWriter;
+
+    private MovieInfo movieInfo;
+
+    private List<MovieInfo> moviesInfo;
+
+    private ErrorResponse errorResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        ndjsonWriter = objectMapper.writer().withRootValueSeparator("\n");
+        movieInfo = MovieInfoFixtures.movieInfo(1);
+        moviesInfo = MovieInfoFixtures.moviesInfo(listSize);
+        errorResponse = new ErrorResponse(List.of("cast must not be blank", "name must not be blank",
+                "releaseDate cannot be null", "year must be a positive number"));
+    }
+
+    @Benchmark
+    public byte[] singleMovieInfo() throws IOException {
+        return objectMapper.writeValueAsBytes(movieInfo);
+    }
+
+    @Benchmark
+    public byte[] errorResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(errorResponse);
+    }
+
+    @Benchmark
+    public byte[] jsonArray() throws IOException {
+        return objectMapper.writeValueAsBytes(moviesInfo);
+    }
+
+    @Benchmark
+    public byte[] ndjson() throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (SequenceWriter sequenceWriter = ndjsonWriter.writeValues(out)) {
+            sequenceWriter.writeAll(moviesInfo);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,96 @@
+package com.bmo.reactivemoviesinfoservice.benchmark;
+
+import com.bmo.reactivemoviesinfoservice.config.BulkProperties;
+import com.bmo.reactivemoviesinfoservice.config.MovieInfoCacheProperties;
+import com.bmo.reactivemoviesinfoservice.config.PaginationProperties;
+import com.bmo.reactivemoviesinfoservice.config.TracingProperties;
+import com.bmo.reactivemoviesinfoservice.config.WriteBehindProperties;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoPage;
+import com.bmo.reactivemoviesinfoservice.repository.InMemoryMovieRepository;
+import com.bmo.reactivemoviesinfoservice.repository.InMemoryMovieStore;
+import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import com.bmo.reactivemoviesinfoservice.service.MovieInfoService;
+import com.bmo.reactivemoviesinfoservice.service.MovieInfoWriteBehindBuffer;
+import com.bmo.reactivemoviesinfoservice.tracing.ReactiveTracer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MovieInfoServiceBenchmark {
+
+    private static final String CREATED_ID = "created-by-benchmark";
+
+    @Param({"1000"})
+    private int catalogSize;
+
+    @Param({"100"})
+    private int pageSize;
+
+    // without the caches every call reaches the repository, which is what the paging benchmarks are about
+    @Param({"true", "false"})
+    private boolean cached;
+
+    private ValidatorFactory validatorFactory;
+
+    private MovieInfoService service;
+
+    private String hotId;
+
+    @Setup
+    public void setUp() {
+        MovieRepository repository = new InMemoryMovieRepository(new InMemoryMovieStore(4));
+        MovieInfoFixtures.moviesInfo(catalogSize).forEach(movieInfo -> repository.save(movieInfo).block());
+        var cacheProperties = new MovieInfoCacheProperties();
+        if (!cached) {
+            cacheProperties.setMaximumSize(0);
+            cacheProperties.setListMaximumSize(0);
+        }
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        service = new MovieInfoService(repository, validatorFactory.getValidator(),
+                new ReactiveTracer(new TracingProperties()), cacheProperties, new PaginationProperties(), new BulkProperties(),
+                new MovieInfoWriteBehindBuffer(repository, new WriteBehindProperties(), new ObjectMapper()));
+        hotId = MovieInfoFixtures.movieInfo(catalogSize / 2).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public MovieInfo getMovieInfoById() {
+        return service.getMovieInfoById(hotId).block();
+    }
+
+    @Benchmark
+    public MovieInfoPage<MovieInfo> getMoviesInfoPage() {
+        return service.getMoviesInfoPage(null, null, pageSize).block();
+    }
+
+    @Benchmark
+    public MovieInfoPage<MovieInfo> getMoviesInfoPageByYear() {
+        return service.getMoviesInfoPage(1990, null, pageSize).block();
+    }
+
+    @Benchmark
+    public MovieInfo createMovieInfo() {
+        var movieInfo = MovieInfoFixtures.movieInfo(catalogSize);
+        movieInfo.setId(CREATED_ID);
+        return service.createMovieInfo(movieInfo).block();
+    }
+}
@@ -0,0 +1,60 @@
+package com.bmo.reactivemoviesinfoservice.benchmark;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MovieInfoValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+
+    private Validator validator;
+
+    private MovieInfo validMovieInfo;
+
+    private MovieInfo invalidMovieInfo;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validMovieInfo = MovieInfoFixtures.movieInfo(1);
+        invalidMovieInfo = MovieInfo.builder()
+                .name("")
+                .year(-2023)
+                .cast(List.of(""))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<MovieInfo>> validMovieInfo() {
+        return validator.validate(validMovieInfo);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<MovieInfo>> invalidMovieInfo() {
+        return validator.validate(invalidMovieInfo);
+    }
+}
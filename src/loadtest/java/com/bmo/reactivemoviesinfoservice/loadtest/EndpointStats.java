@@ -0,0 +1,41 @@
+package com.bmo.reactivemoviesinfoservice.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+final class EndpointStats {
+
+    private final Recorder latencyMicros = new Recorder(3);
+
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    void recordSince(long startNanos, String outcome) {
+        recordMicros(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos), outcome);
+    }
+
+    void recordMicros(long micros, String outcome) {
+        latencyMicros.recordValue(Math.max(micros, 0));
+        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+    }
+
+    Histogram intervalHistogram() {
+        return latencyMicros.getIntervalHistogram();
+    }
+
+    Map<String, Long> outcomes() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> snapshot.put(outcome, count.sum()));
+        return snapshot;
+    }
+
+    void reset() {
+        latencyMicros.reset();
+        outcomes.clear();
+    }
+}
@@ -0,0 +1,236 @@
+package com.bmo.reactivemoviesinfoservice.loadtest;
+
+import com.bmo.reactivemoviesinfoservice.ReactiveMoviesInfoServiceApplication;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoEvent;
+import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+public final class LoadTestHarness {
+
+    private static final String MOVIES_INFO_URL = "/v1/moviesInfo";
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final LoadTestSettings settings;
+
+    private final WebClient webClient;
+
+    private final List<String> seededIds;
+
+    private final Queue<String> createdIds = new ConcurrentLinkedQueue<>();
+
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    private final String[] weightedOperations;
+
+    private LoadTestHarness(LoadTestSettings settings, WebClient webClient, List<String> seededIds) {
+        this.settings = settings;
+        this.webClient = webClient;
+        this.seededIds = seededIds;
+        this.weightedOperations = settings.mix().entrySet().stream()
+                .flatMap(entry -> IntStream.range(0, entry.getValue()).mapToObj(i -> entry.getKey()))
+                .toArray(String[]::new);
+    }
+
+    public static void main(String[] args) throws IOException {
+        var settings = LoadTestSettings.fromSystemProperties();
+        List<String> applicationArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.profiles.active=loadtest",
+                "--de.flapdoodle.mongodb.embedded.version=" + settings.mongoVersion(),
+                "--movies-info.diagnostics.query-plan-check-on-startup=false",
+                "--movies-info.rate-limit.enabled=false"));
+        applicationArgs.addAll(List.of(args));
+
+        long bootStart = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ReactiveMoviesInfoServiceApplication.class)
+                .run(applicationArgs.toArray(String[]::new))) {
+            System.out.printf("service ready in %d ms%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - bootStart));
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            var connectionProvider = ConnectionProvider.builder("loadtest")
+                    .maxConnections(settings.concurrency() + settings.streamSubscribers())
+                    .pendingAcquireMaxCount(-1)
+                    .build();
+            var webClient = WebClient.builder()
+                    .baseUrl("http://localhost:" + port)
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                    .build();
+
+            var harness = new LoadTestHarness(settings, webClient, seed(context.getBean(MovieRepository.class), settings.seedSize()));
+            harness.run();
+            connectionProvider.dispose();
+        }
+    }
+
+    private static List<String> seed(MovieRepository repository, int seedSize) {
+        return repository.saveAll(Flux.range(0, seedSize).map(LoadTestHarness::newMovieInfo))
+                .map(MovieInfo::getId)
+                .collectList()
+                .block();
+    }
+
+    private void run() throws IOException {
+        Disposable streamSubscribers = subscribeToStream();
+        try {
+            drive(settings.warmup());
+            stats.values().forEach(EndpointStats::reset);
+
+            long measureStart = System.nanoTime();
+            drive(settings.duration());
+            double elapsedSeconds = (System.nanoTime() - measureStart) / 1e9;
+            report(elapsedSeconds);
+        } finally {
+            streamSubscribers.dispose();
+        }
+    }
+
+    private void drive(Duration duration) {
+        Instant deadline = Instant.now().plus(duration);
+        Flux.range(0, settings.concurrency())
+                .flatMap(worker -> Mono.defer(this::randomOperation)
+                        .repeat(() -> Instant.now().isBefore(deadline)), settings.concurrency())
+                .then()
+                .block();
+    }
+
+    private Disposable subscribeToStream() {
+        EndpointStats streamStats = statsFor("stream");
+        return Flux.range(0, settings.streamSubscribers())
+                .flatMap(subscriber -> webClient.get()
+                        .uri(MOVIES_INFO_URL + "/stream/events?since={since}", Instant.now())
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .retrieve()
+                        .bodyToFlux(MovieInfoEvent.class)
+                        .doOnNext(event -> streamStats.recordMicros(
+                                TimeUnit.NANOSECONDS.toMicros(Duration.between(event.timestamp(), Instant.now()).toNanos()), "event")),
+                        Math.max(settings.streamSubscribers(), 1))
+                .subscribe(event -> { }, error -> System.err.println("stream subscriber failed: " + error.getMessage()));
+    }
+
+    private Mono<Void> randomOperation() {
+        var random = ThreadLocalRandom.current();
+        String operation = weightedOperations[random.nextInt(weightedOperations.length)];
+        return switch (operation) {
+            case "getById" -> timed(operation, webClient.get().uri(MOVIES_INFO_URL + "/{id}", skewedSeededId()), ClientResponse::releaseBody);
+            case "list" -> timed(operation, webClient.get().uri(MOVIES_INFO_URL + "?limit={limit}", PAGE_SIZE), ClientResponse::releaseBody);
+            case "listByYear" -> timed(operation, webClient.get().uri(MOVIES_INFO_URL + "?year={year}&limit={limit}",
+                    1977 + random.nextInt(50), PAGE_SIZE), ClientResponse::releaseBody);
+            case "create" -> create();
+            case "update" -> timed(operation, webClient.put().uri(MOVIES_INFO_URL + "/{id}", skewedSeededId())
+                    .bodyValue(newMovieInfo(random.nextInt())), ClientResponse::releaseBody);
+            case "patch" -> timed(operation, webClient.patch().uri(MOVIES_INFO_URL + "/{id}", skewedSeededId())
+                    .bodyValue(Map.of("year", 1977 + random.nextInt(50))), ClientResponse::releaseBody);
+            case "delete" -> delete();
+            default -> Mono.error(new IllegalArgumentException("unknown load test operation " + operation));
+        };
+    }
+
+    private Mono<Void> create() {
+        return timed("create", webClient.post().uri(MOVIES_INFO_URL).bodyValue(newMovieInfo(ThreadLocalRandom.current().nextInt())),
+                response -> response.bodyToMono(MovieInfo.class)
+                        .doOnNext(created -> createdIds.offer(created.getId()))
+                        .then());
+    }
+
+    private Mono<Void> delete() {
+        String id = createdIds.poll();
+        if (id == null) {
+            return create();
+        }
+        return timed("delete", webClient.delete().uri(MOVIES_INFO_URL + "/{id}", id), ClientResponse::releaseBody);
+    }
+
+    private Mono<Void> timed(String endpoint, WebClient.RequestHeadersSpec<?> request,
+                             Function<ClientResponse, Mono<Void>> bodyHandler) {
+        EndpointStats endpointStats = statsFor(endpoint);
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return request.exchangeToMono(response -> bodyHandler.apply(response)
+                            .thenReturn(String.valueOf(response.statusCode().value())))
+                    .doOnNext(status -> endpointStats.recordSince(start, status))
+                    .onErrorResume(error -> {
+                        endpointStats.recordSince(start, error.getClass().getSimpleName());
+                        return Mono.empty();
+                    })
+                    .then();
+        });
+    }
+
+    private String skewedSeededId() {
+        double skew = Math.pow(ThreadLocalRandom.current().nextDouble(), 3);
+        return seededIds.get((int) (skew * seededIds.size()));
+    }
+
+    private EndpointStats statsFor(String endpoint) {
+        return stats.computeIfAbsent(endpoint, key -> new EndpointStats());
+    }
+
+    private void report(double elapsedSeconds) throws IOException {
+        Files.createDirectories(settings.reportDir());
+        System.out.printf("%nconcurrency=%d streamSubscribers=%d duration=%.1fs%n",
+                settings.concurrency(), settings.streamSubscribers(), elapsedSeconds);
+        System.out.printf("%-12s %10s %10s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "outcomes");
+        for (var entry : new TreeMap<>(stats).entrySet()) {
+            Histogram histogram = entry.getValue().intervalHistogram();
+            System.out.printf("%-12s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    entry.getKey(),
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / elapsedSeconds,
+                    histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                    histogram.getValueAtPercentile(90) / MICROS_PER_MILLI,
+                    histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                    histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                    histogram.getMaxValue() / MICROS_PER_MILLI,
+                    entry.getValue().outcomes());
+            try (var out = new PrintStream(Files.newOutputStream(settings.reportDir().resolve(entry.getKey() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+        System.out.printf("latency distributions written to %s%n", settings.reportDir().toAbsolutePath());
+    }
+
+    private static MovieInfo newMovieInfo(int seed) {
+        int index = Math.abs(seed % 100_000);
+        return MovieInfo.builder()
+                .name("Load Test Movie " + index)
+                .year(1977 + index % 50)
+                .cast(List.of("Luke", "Obiwan"))
+                .releaseDate(LocalDate.parse("1977-01-01").plusDays(index))
+                .build();
+    }
+}
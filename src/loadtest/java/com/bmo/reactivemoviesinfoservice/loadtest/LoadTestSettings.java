@@ -0,0 +1,42 @@
+package com.bmo.reactivemoviesinfoservice.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+record LoadTestSettings(int concurrency,
+                        int streamSubscribers,
+                        Duration warmup,
+                        Duration duration,
+                        int seedSize,
+                        Map<String, Integer> mix,
+                        String mongoVersion,
+                        Path reportDir) {
+
+    private static final String DEFAULT_MIX = "getById:50,list:15,listByYear:10,create:10,update:5,patch:5,delete:5";
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.concurrency", 32),
+                Integer.getInteger("loadtest.streamSubscribers", 8),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT10S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT30S")),
+                Integer.getInteger("loadtest.seedSize", 1000),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                System.getProperty("loadtest.mongoVersion", "6.0.5"),
+                Path.of(System.getProperty("loadtest.reportDir", "build/reports/loadtest")));
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] operationAndWeight = entry.trim().split(":");
+            if (operationAndWeight.length != 2) {
+                throw new IllegalArgumentException("loadtest.mix entries must look like operation:weight, got " + entry);
+            }
+            weights.put(operationAndWeight[0].trim(), Integer.valueOf(operationAndWeight[1].trim()));
+        }
+        return weights;
+    }
+}
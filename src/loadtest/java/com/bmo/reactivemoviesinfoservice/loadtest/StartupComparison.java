@@ -0,0 +1,266 @@
+package com.bmo.reactivemoviesinfoservice.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+public final class StartupComparison {
+
+    private static final String READINESS_PATH = "/actuator/health/readiness";
+
+    private static final String MOVIES_INFO_PATH = "/v1/moviesInfo";
+
+    private static final String FIRST_REQUEST_PATH = MOVIES_INFO_PATH + "?limit=10";
+
+    private static final String WARM_UP = "--movies-info.warm-up.enabled=true";
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(5);
+
+    private record Run(String variant, int run, long readyMillis, long firstRequestMicros, long firstWindowRequests,
+                       long firstWindowP99Micros, long firstWindowMaxMicros, long rssKilobytes) {
+    }
+
+    private final int runs;
+
+    private final String profiles;
+
+    private final Duration timeout;
+
+    private final Duration firstWindow;
+
+    private final int concurrency;
+
+    private final Path reportDir;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private StartupComparison(int runs, String profiles, Duration timeout, Duration firstWindow, int concurrency, Path reportDir) {
+        this.runs = runs;
+        this.profiles = profiles;
+        this.timeout = timeout;
+        this.firstWindow = firstWindow;
+        this.concurrency = concurrency;
+        this.reportDir = reportDir;
+    }
+
+    public static void main(String[] args) throws Exception {
+        var comparison = new StartupComparison(
+                Integer.getInteger("startup.runs", 3),
+                System.getProperty("startup.profiles", "in-memory"),
+                Duration.parse(System.getProperty("startup.timeout", "PT60S")),
+                Duration.parse(System.getProperty("startup.firstWindow", "PT60S")),
+                Integer.getInteger("startup.concurrency", 4),
+                Path.of(System.getProperty("startup.reportDir", "build/reports/startup")));
+        Files.createDirectories(comparison.reportDir);
+
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String jar = System.getProperty("startup.jar");
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        variants.put("jvm", List.of(java, "-jar", jar));
+        variants.put("jvm-warm", List.of(java, "-jar", jar, WARM_UP));
+        Path cdsJar = Path.of(System.getProperty("startup.cdsJar", "build/cds/reactive-movies-info-service.jar"));
+        Path cdsArchive = Path.of(System.getProperty("startup.cdsArchive", "build/cds/reactive-movies-info-service.jsa"));
+        if (Files.exists(cdsArchive)) {
+            variants.put("cds-warm", List.of(java, "-XX:SharedArchiveFile=" + cdsArchive, "-Xlog:cds=warning", "-jar", cdsJar.toString(), WARM_UP));
+        } else {
+            System.out.printf("no AppCDS archive at %s, record it with gradle appCdsArchive%n", cdsArchive);
+        }
+        if (Boolean.getBoolean("startup.aot")) {
+            variants.put("jvm-aot", List.of(java, "-Dspring.aot.enabled=true", "-jar", jar));
+        }
+        Path nativeImage = Path.of(System.getProperty("startup.nativeImage", "build/native/nativeCompile/reactive-movies-info-service"));
+        if (Files.isExecutable(nativeImage)) {
+            variants.put("native", List.of(nativeImage.toString()));
+        } else {
+            System.out.printf("no native executable at %s, build it with gradle nativeCompile -Pnative -Paot.profiles=%s%n", nativeImage, comparison.profiles);
+        }
+
+        List<Run> results = new ArrayList<>();
+        for (var variant : variants.entrySet()) {
+            for (int run = 1; run <= comparison.runs; run++) {
+                results.add(comparison.measure(variant.getKey(), variant.getValue(), run));
+            }
+        }
+        comparison.report(variants.keySet(), results);
+    }
+
+    private Run measure(String variant, List<String> command, int run) throws Exception {
+        int port = freePort();
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add("--server.port=" + port);
+        arguments.add("--spring.profiles.active=" + profiles);
+        // all traffic comes from one client, keep the per-client budget out of the latency numbers
+        arguments.add("--movies-info.rate-limit.enabled=false");
+        var processBuilder = new ProcessBuilder(arguments)
+                .redirectErrorStream(true)
+                .redirectOutput(reportDir.resolve(variant + "-" + run + ".log").toFile());
+
+        long start = System.nanoTime();
+        Process process = processBuilder.start();
+        try {
+            awaitReady(process, port, start);
+            long readyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            long requestStart = System.nanoTime();
+            get(port, FIRST_REQUEST_PATH);
+            long firstRequestMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - requestStart);
+            Histogram firstWindowLatencies = driveFirstWindow(port);
+            var result = new Run(variant, run, readyMillis, firstRequestMicros, firstWindowLatencies.getTotalCount(),
+                    firstWindowLatencies.getValueAtPercentile(99), firstWindowLatencies.getMaxValue(), rssKilobytes(process.pid()));
+            System.out.printf("%-8s run %d: ready in %d ms, first request %.2f ms, first window p99 %.2f ms over %d requests, rss %d MB%n",
+                    variant, run, result.readyMillis(), result.firstRequestMicros() / 1000.0, result.firstWindowP99Micros() / 1000.0,
+                    result.firstWindowRequests(), result.rssKilobytes() / 1024);
+            return result;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void awaitReady(Process process, int port, long start) throws InterruptedException {
+        long deadline = start + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("service exited with " + process.exitValue() + " before becoming ready, see " + reportDir);
+            }
+            try {
+                if (get(port, READINESS_PATH) == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+        throw new IllegalStateException("service did not become ready within " + timeout);
+    }
+
+    // closed-loop create, read, list, update and delete traffic right after readiness, the window a rollout is judged on
+    private Histogram driveFirstWindow(int port) throws Exception {
+        long deadline = System.nanoTime() + firstWindow.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<Histogram>> results = new ArrayList<>();
+            for (int worker = 0; worker < concurrency; worker++) {
+                int workerId = worker;
+                results.add(workers.submit(() -> drive(port, workerId, deadline)));
+            }
+            var latencies = new Histogram(3);
+            for (Future<Histogram> result : results) {
+                latencies.add(result.get());
+            }
+            return latencies;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private Histogram drive(int port, int worker, long deadline) throws IOException, InterruptedException {
+        var latencies = new Histogram(3);
+        for (long iteration = 0; System.nanoTime() - deadline < 0; iteration++) {
+            String body = "{\"name\":\"Startup " + worker + "-" + iteration + "\",\"year\":" + (2000 + iteration % 20)
+                    + ",\"cast\":[\"Startup\"],\"releaseDate\":\"2005-06-15\"}";
+            HttpResponse<String> created = timed(latencies, port, MOVIES_INFO_PATH, "POST", body);
+            String id = created.body().replaceAll("(?s).*\"id\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+            timed(latencies, port, MOVIES_INFO_PATH + "/" + id, "GET", null);
+            timed(latencies, port, MOVIES_INFO_PATH + "?year=" + (2000 + iteration % 20) + "&limit=10", "GET", null);
+            timed(latencies, port, MOVIES_INFO_PATH + "/" + id, "PUT", body.replace("Startup\"]", "Startup\",\"Again\"]"));
+            timed(latencies, port, MOVIES_INFO_PATH + "/" + id, "DELETE", null);
+        }
+        return latencies;
+    }
+
+    private HttpResponse<String> timed(Histogram latencies, int port, String path, String method, String body)
+            throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(method + " " + path + " answered " + response.statusCode());
+        }
+        return response;
+    }
+
+    private int get(int port, String path) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private void report(Iterable<String> variants, List<Run> results) throws IOException {
+        System.out.printf("%n%-8s %6s %12s %12s %18s %16s %10s%n",
+                "variant", "runs", "p50 ready", "max ready", "p50 first request", "p50 window p99", "p50 rss");
+        for (String variant : variants) {
+            List<Run> variantRuns = results.stream().filter(run -> run.variant().equals(variant)).toList();
+            System.out.printf("%-8s %6d %9d ms %9d ms %15.2f ms %13.2f ms %7d MB%n",
+                    variant,
+                    variantRuns.size(),
+                    median(variantRuns, Run::readyMillis),
+                    variantRuns.stream().mapToLong(Run::readyMillis).max().orElse(0),
+                    median(variantRuns, Run::firstRequestMicros) / 1000.0,
+                    median(variantRuns, Run::firstWindowP99Micros) / 1000.0,
+                    median(variantRuns, Run::rssKilobytes) / 1024);
+        }
+        try (var out = new PrintStream(Files.newOutputStream(reportDir.resolve("startup.csv")))) {
+            out.println("variant,run,ready_ms,first_request_us,first_window_requests,first_window_p99_us,first_window_max_us,rss_kb");
+            results.forEach(run -> out.printf("%s,%d,%d,%d,%d,%d,%d,%d%n",
+                    run.variant(), run.run(), run.readyMillis(), run.firstRequestMicros(), run.firstWindowRequests(),
+                    run.firstWindowP99Micros(), run.firstWindowMaxMicros(), run.rssKilobytes()));
+        }
+        System.out.printf("per-run results and service logs written to %s%n", reportDir.toAbsolutePath());
+    }
+
+    private static long median(List<Run> runs, ToLongFunction<Run> metric) {
+        long[] values = runs.stream().mapToLong(metric).sorted().toArray();
+        return values.length == 0 ? 0 : values[values.length / 2];
+    }
+
+    private static long rssKilobytes(long pid) throws IOException, InterruptedException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (Files.exists(status)) {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        }
+        Process ps = new ProcessBuilder("ps", "-o", "rss=", "-p", String.valueOf(pid)).start();
+        String output = new String(ps.getInputStream().readAllBytes()).trim();
+        ps.waitFor();
+        return output.isEmpty() ? 0 : Long.parseLong(output);
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
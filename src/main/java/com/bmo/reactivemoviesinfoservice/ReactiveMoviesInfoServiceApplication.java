@@ -1,13 +1,21 @@
 package com.bmo.reactivemoviesinfoservice;
 
+import com.bmo.reactivemoviesinfoservice.config.WarmUpProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class ReactiveMoviesInfoServiceApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(ReactiveMoviesInfoServiceApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(ReactiveMoviesInfoServiceApplication.class, args);
+		// runners, the warm-up among them, have finished once run returns; a training run only needs the JVM to exit cleanly
+		if (context.getBean(WarmUpProperties.class).isTrainingRun()) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
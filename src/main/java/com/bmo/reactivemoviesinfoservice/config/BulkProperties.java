@@ -0,0 +1,13 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "movies-info.bulk")
+public class BulkProperties {
+
+    private int batchSize = 500;
+
+    private int concurrency = 2;
+}
@@ -0,0 +1,23 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "movies-info.change-stream")
+public class ChangeStreamProperties {
+
+    // keys the persisted resume token, so it must survive restarts and rescheduling, which a pod hostname does not,
+    // and differ between replicas, there is no default that does both so the change stream source requires it
+    private String nodeId;
+
+    private String resumeTokenCollection = "changeStreamResumeTokens";
+
+    private Duration checkpointInterval = Duration.ofSeconds(1);
+
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    private Duration maxRetryBackoff = Duration.ofSeconds(30);
+}
@@ -0,0 +1,11 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "movies-info.diagnostics")
+public class DiagnosticsProperties {
+
+    private boolean queryPlanCheckOnStartup = true;
+}
@@ -0,0 +1,13 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "movies-info.http.cache-control")
+public class HttpCacheProperties {
+
+    private String byId = "no-cache";
+
+    private String list = "no-cache";
+}
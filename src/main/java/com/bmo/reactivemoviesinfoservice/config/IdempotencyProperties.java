@@ -0,0 +1,17 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "movies-info.idempotency")
+public class IdempotencyProperties {
+
+    private Duration ttl = Duration.ofHours(1);
+
+    private long maximumSize = 100_000;
+
+    private int maxKeyLength = 255;
+}
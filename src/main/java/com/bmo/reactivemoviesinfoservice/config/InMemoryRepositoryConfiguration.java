@@ -0,0 +1,37 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import com.bmo.reactivemoviesinfoservice.repository.InMemoryMovieRepository;
+import com.bmo.reactivemoviesinfoservice.repository.InMemoryMovieSnapshots;
+import com.bmo.reactivemoviesinfoservice.repository.InMemoryMovieStore;
+import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile(InMemoryRepositoryConfiguration.PROFILE)
+public class InMemoryRepositoryConfiguration {
+
+    public static final String PROFILE = "in-memory";
+
+    @Bean
+    public InMemoryMovieStore inMemoryMovieStore(InMemoryRepositoryProperties properties) {
+        return new InMemoryMovieStore(properties.getLockStripes());
+    }
+
+    @Bean
+    public MovieRepository movieRepository(InMemoryMovieStore store) {
+        return new InMemoryMovieRepository(store);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "movies-info.in-memory.snapshot-path")
+    public InMemoryMovieSnapshots inMemoryMovieSnapshots(InMemoryMovieStore store, ObjectMapper objectMapper,
+                                                         InMemoryRepositoryProperties properties) {
+        var snapshots = new InMemoryMovieSnapshots(store, objectMapper, properties.getSnapshotPath(), properties.getSnapshotInterval());
+        snapshots.restore();
+        return snapshots;
+    }
+}
@@ -0,0 +1,18 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "movies-info.in-memory")
+public class InMemoryRepositoryProperties {
+
+    private int lockStripes = 64;
+
+    private Path snapshotPath;
+
+    private Duration snapshotInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,31 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import com.bmo.reactivemoviesinfoservice.metrics.RepositoryMetricsInterceptor;
+import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public static BeanPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof MovieRepository)) {
+                    return bean;
+                }
+                var proxyFactory = new ProxyFactory();
+                proxyFactory.setTarget(bean);
+                proxyFactory.addInterface(MovieRepository.class);
+                proxyFactory.addAdvice(new RepositoryMetricsInterceptor(meterRegistry.getObject(), MovieRepository.class.getSimpleName()));
+                return proxyFactory.getProxy();
+            }
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "movies-info.cache")
+public class MovieInfoCacheProperties {
+
+    private long maximumSize = 10_000;
+
+    private Duration ttl = Duration.ofMinutes(5);
+
+    private long listMaximumSize = 1_000;
+
+    private Duration listTtl = Duration.ofSeconds(1);
+}
@@ -0,0 +1,35 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import com.bmo.reactivemoviesinfoservice.diagnostics.QueryPlanReport;
+import com.bmo.reactivemoviesinfoservice.domain.BulkItemResult;
+import com.bmo.reactivemoviesinfoservice.domain.ErrorResponse;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoEvent;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoExportItem;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoPage;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoPatch;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoStats;
+import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+public class MoviesInfoRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String WRITE_BEHIND_JOURNAL_ENTRY = "com.bmo.reactivemoviesinfoservice.service.WriteBehindJournal$Entry";
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                MovieInfo.class, MovieInfoPatch.class, MovieInfoPage.class, MovieInfoEvent.class, MovieInfoStats.class,
+                MovieInfoExportItem.class, BulkItemResult.class, ErrorResponse.class, QueryPlanReport.class);
+        // Mongo mapping and the in-memory repository both read and write MovieInfo through its accessors
+        hints.reflection().registerType(MovieInfo.class, MemberCategory.values());
+        hints.reflection().registerType(TypeReference.of(WRITE_BEHIND_JOURNAL_ENTRY), MemberCategory.values());
+        // MetricsConfiguration and RateLimitConfiguration wrap the repository in JDK proxies
+        hints.proxies().registerJdkProxy(AopProxyUtils.completeJdkProxyInterfaces(MovieRepository.class));
+    }
+}
@@ -0,0 +1,13 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "movies-info.pagination")
+public class PaginationProperties {
+
+    private int defaultLimit = 100;
+
+    private int maxLimit = 500;
+}
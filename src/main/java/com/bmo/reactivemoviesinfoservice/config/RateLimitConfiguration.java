@@ -0,0 +1,49 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import com.bmo.reactivemoviesinfoservice.ratelimit.ClientIdentity;
+import com.bmo.reactivemoviesinfoservice.ratelimit.RateLimitWebFilter;
+import com.bmo.reactivemoviesinfoservice.ratelimit.RepositoryAdmissionInterceptor;
+import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimitConfiguration {
+
+    @Bean
+    public ClientIdentity clientIdentity(RateLimitProperties properties) {
+        return new ClientIdentity(properties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "movies-info.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public RateLimitWebFilter rateLimitWebFilter(RateLimitProperties properties, ClientIdentity clientIdentity) {
+        return new RateLimitWebFilter(properties, clientIdentity);
+    }
+
+    @Bean
+    public RepositoryAdmissionInterceptor repositoryAdmissionInterceptor(RateLimitProperties properties) {
+        return new RepositoryAdmissionInterceptor(properties.getMaxConcurrentRepositoryCalls());
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryAdmissionPostProcessor(ObjectProvider<RepositoryAdmissionInterceptor> admissionInterceptor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof MovieRepository)) {
+                    return bean;
+                }
+                var proxyFactory = new ProxyFactory();
+                proxyFactory.setTarget(bean);
+                proxyFactory.addInterface(MovieRepository.class);
+                proxyFactory.addAdvice(admissionInterceptor.getObject());
+                return proxyFactory.getProxy();
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "movies-info.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private String clientHeader = "X-API-Key";
+
+    // only these keys get a bucket of their own, any other value is ignored and the caller is limited by address
+    private Set<String> apiKeys = new HashSet<>();
+
+    // peers whose X-Forwarded-For is believed, server.forward-headers-strategy stays none so nobody else can set it
+    private Set<String> trustedProxies = new HashSet<>();
+
+    private long maximumClients = 100_000;
+
+    private Duration clientIdleTimeout = Duration.ofMinutes(10);
+
+    private Budget read = new Budget(100, 200);
+
+    private Budget write = new Budget(20, 50);
+
+    private Budget stream = new Budget(2, 10);
+
+    private int maxConcurrentRepositoryCalls = 64;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Budget {
+
+        private double permitsPerSecond;
+
+        private int burst;
+    }
+}
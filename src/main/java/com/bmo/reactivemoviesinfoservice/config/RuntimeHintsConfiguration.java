@@ -0,0 +1,9 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+@Configuration
+@ImportRuntimeHints(MoviesInfoRuntimeHints.class)
+public class RuntimeHintsConfiguration {
+}
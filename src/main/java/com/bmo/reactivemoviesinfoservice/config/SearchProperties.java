@@ -0,0 +1,15 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "movies-info.search")
+public class SearchProperties {
+
+    private int defaultLimit = 10;
+
+    private int maxLimit = 50;
+
+    private int maxResults = 200;
+}
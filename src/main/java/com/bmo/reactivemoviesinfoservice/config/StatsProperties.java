@@ -0,0 +1,18 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "movies-info.stats")
+public class StatsProperties {
+
+    private Duration refreshInterval = Duration.ofSeconds(30);
+
+    private int castLimit = 100;
+
+    // how long a failed refresh is remembered before the aggregation is tried again
+    private Duration failureBackoff = Duration.ofSeconds(5);
+}
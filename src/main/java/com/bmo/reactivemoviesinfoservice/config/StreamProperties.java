@@ -0,0 +1,28 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "movies-info.stream")
+public class StreamProperties {
+
+    public enum Source { LOCAL, CHANGE_STREAM }
+
+    public enum OverflowPolicy { DROP_OLDEST, DROP_NEWEST, DISCONNECT, LATEST_ONLY }
+
+    private Source source = Source.LOCAL;
+
+    private int maxSize = 1000;
+
+    private Duration maxAge = Duration.ofMinutes(10);
+
+    private DataSize maxBytes = DataSize.ofMegabytes(8);
+
+    private int subscriberBufferSize = 256;
+
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+}
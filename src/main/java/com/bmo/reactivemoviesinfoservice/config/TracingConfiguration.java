@@ -0,0 +1,20 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import com.bmo.reactivemoviesinfoservice.tracing.ReactiveTracer;
+import com.bmo.reactivemoviesinfoservice.tracing.TracingWebFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TracingConfiguration {
+
+    @Bean
+    public ReactiveTracer reactiveTracer(TracingProperties properties) {
+        return new ReactiveTracer(properties);
+    }
+
+    @Bean
+    public TracingWebFilter tracingWebFilter(ReactiveTracer reactiveTracer) {
+        return new TracingWebFilter(reactiveTracer);
+    }
+}
@@ -0,0 +1,22 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "movies-info.tracing")
+public class TracingProperties {
+
+    private boolean enabled = true;
+
+    private double sampleRate = 0.01;
+
+    private String debugHeader = "X-Debug-Trace";
+
+    // the debug header must carry this value, full tracing logs every signal so it is off while unset
+    private String debugToken;
+
+    private double debugTracesPerSecond = 1;
+
+    private int debugTraceBurst = 5;
+}
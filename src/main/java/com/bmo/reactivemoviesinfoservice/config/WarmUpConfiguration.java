@@ -0,0 +1,28 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import com.bmo.reactivemoviesinfoservice.ratelimit.ClientIdentity;
+import com.bmo.reactivemoviesinfoservice.service.MovieInfoSearchService;
+import com.bmo.reactivemoviesinfoservice.service.MovieInfoService;
+import com.bmo.reactivemoviesinfoservice.warmup.MovieInfoWarmUp;
+import jakarta.validation.Validator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.codec.ServerCodecConfigurer;
+
+@Configuration
+public class WarmUpConfiguration {
+
+    // the warm-up creates and deletes movies info through the real repository, which must not be a shared database
+    @Bean
+    @Profile("in-memory")
+    @ConditionalOnProperty(name = "movies-info.warm-up.enabled", havingValue = "true")
+    public MovieInfoWarmUp movieInfoWarmUp(WarmUpProperties properties, ServerCodecConfigurer codecConfigurer, Validator validator,
+                                           MovieInfoService service, MovieInfoSearchService searchService,
+                                           HttpCacheProperties cacheProperties, IdempotencyProperties idempotencyProperties,
+                                           ClientIdentity clientIdentity) {
+        return new MovieInfoWarmUp(properties, codecConfigurer, validator, service, searchService, cacheProperties, idempotencyProperties,
+                clientIdentity);
+    }
+}
@@ -0,0 +1,20 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "movies-info.warm-up")
+public class WarmUpProperties {
+
+    private boolean enabled = false;
+
+    private int iterations = 5000;
+
+    private Duration maxDuration = Duration.ofSeconds(20);
+
+    // exit once warmed up, used to record the AppCDS archive
+    private boolean trainingRun = false;
+}
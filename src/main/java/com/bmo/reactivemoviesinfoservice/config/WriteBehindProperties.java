@@ -0,0 +1,24 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "movies-info.write-behind")
+public class WriteBehindProperties {
+
+    private boolean enabled = false;
+
+    private Path journalPath = Path.of("data", "movies-info-updates.journal");
+
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    private int maxBatchSize = 500;
+
+    private int maxPending = 10_000;
+
+    private Duration shutdownFlushTimeout = Duration.ofSeconds(30);
+}
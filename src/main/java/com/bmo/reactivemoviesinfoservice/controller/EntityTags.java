@@ -0,0 +1,56 @@
+package com.bmo.reactivemoviesinfoservice.controller;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+final class EntityTags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private static final String ANY = "*";
+
+    private EntityTags() {
+    }
+
+    static String forVersion(Long version) {
+        return quote(String.valueOf(version));
+    }
+
+    // the Accept header picks JSON, CBOR or Smile, so it is part of the tag and two encodings never share one
+    static String forPage(List<?> items, String continuationToken, String accept) {
+        var content = new StringBuilder().append(accept).append('\n');
+        for (Object item : items) {
+            if (item instanceof MovieInfo movieInfo && movieInfo.getVersion() != null) {
+                content.append(movieInfo.getId()).append(':').append(movieInfo.getVersion());
+            } else {
+                content.append(item);
+            }
+            content.append('\n');
+        }
+        content.append(continuationToken);
+        return quote(DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    static boolean matchesAny(String ifNoneMatch, String entityTag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals(ANY)) {
+                return true;
+            }
+            if (tag.startsWith(WEAK_PREFIX)) {
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (tag.equals(entityTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
@@ -13,17 +13,16 @@ public class FluxAndMonoController {
 
     @GetMapping("/flux")
     public Flux<Integer> flux() {
-        return Flux.just(1,2,3).log();
+        return Flux.just(1,2,3);
     }
 
     @GetMapping("/mono")
     public Mono<String> mono(){
-        return Mono.just("hello world").log();
+        return Mono.just("hello world");
     }
 
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<Long> stream() {
-        return Flux.interval(Duration.ofSeconds(1))
-                .log();
+        return Flux.interval(Duration.ofSeconds(1));
     }
 }
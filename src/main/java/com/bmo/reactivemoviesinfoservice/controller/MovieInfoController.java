@@ -1,74 +1,230 @@
 package com.bmo.reactivemoviesinfoservice.controller;
 
+import com.bmo.reactivemoviesinfoservice.config.HttpCacheProperties;
+import com.bmo.reactivemoviesinfoservice.domain.BulkItemResult;
 import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoEvent;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoEventType;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoPage;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoPatch;
+import com.bmo.reactivemoviesinfoservice.exception.MalformedPreconditionException;
+import com.bmo.reactivemoviesinfoservice.ratelimit.ClientIdentity;
+import com.bmo.reactivemoviesinfoservice.service.IdempotencyStore;
+import com.bmo.reactivemoviesinfoservice.service.MovieInfoSearchService;
 import com.bmo.reactivemoviesinfoservice.service.MovieInfoService;
+import com.bmo.reactivemoviesinfoservice.stream.MovieInfoStreamBuffer;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/v1/moviesInfo")
 public class MovieInfoController {
 
+    static final String CONTINUATION_TOKEN_HEADER = "X-Continuation-Token";
+
+    static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    static final String SMILE_STREAM_VALUE = "application/stream+x-jackson-smile";
+
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private MovieInfoService service;
 
-    private Sinks.Many<MovieInfo> moviesInfoSink = Sinks.many().replay().all();
+    private MovieInfoSearchService searchService;
 
-    public MovieInfoController(MovieInfoService service) {
+    private MovieInfoStreamBuffer streamBuffer;
+
+    private HttpCacheProperties cacheProperties;
+
+    private IdempotencyStore idempotencyStore;
+
+    private ClientIdentity clientIdentity;
+
+    public MovieInfoController(MovieInfoService service, MovieInfoSearchService searchService, MovieInfoStreamBuffer streamBuffer,
+                               HttpCacheProperties cacheProperties, IdempotencyStore idempotencyStore, ClientIdentity clientIdentity) {
         this.service = service;
+        this.searchService = searchService;
+        this.streamBuffer = streamBuffer;
+        this.cacheProperties = cacheProperties;
+        this.idempotencyStore = idempotencyStore;
+        this.clientIdentity = clientIdentity;
+        // published on every source, a dropped buffered update never reaches the change stream
+        service.onWriteConflict(dropped -> streamBuffer.publish(MovieInfoEventType.CONFLICT, dropped));
+    }
+
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, SMILE_STREAM_VALUE})
+    public Flux<MovieInfo> getMovieInfoStream(@RequestParam(value = "fromSequence", required = false) Long fromSequence,
+                                              @RequestParam(value = "since", required = false) Instant since) {
+        // inserts only, as before events had a type, clients that need updates, deletes or gaps read /stream/events
+        return streamBuffer.events(fromSequence, since)
+                .filter(event -> event.type() == MovieInfoEventType.INSERT)
+                .map(MovieInfoEvent::movieInfo);
+    }
+
+    @GetMapping(value = "/stream/events", produces = {MediaType.APPLICATION_NDJSON_VALUE, SMILE_STREAM_VALUE})
+    public Flux<MovieInfoEvent> getMovieInfoEventStream(@RequestParam(value = "fromSequence", required = false) Long fromSequence,
+                                                        @RequestParam(value = "since", required = false) Instant since) {
+        return streamBuffer.events(fromSequence, since);
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE})
+    public Mono<ResponseEntity<List<MovieInfo>>> getAll(@RequestParam(value = "year", required = false) Integer year,
+                                                        @RequestParam(value = "after", required = false) String after,
+                                                        @RequestParam(value = "limit", required = false) Integer limit,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return service.getMoviesInfoPage(year, after, limit)
+                .map(page -> toPageResponse(page, accept));
     }
 
-    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
-    public Flux<MovieInfo> getMovieInfoStream() {
-        return moviesInfoSink.asFlux();
+    @GetMapping(params = "fields", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE})
+    public Mono<ResponseEntity<List<Map<String, Object>>>> getAllFields(@RequestParam(value = "year", required = false) Integer year,
+                                                                        @RequestParam(value = "after", required = false) String after,
+                                                                        @RequestParam(value = "limit", required = false) Integer limit,
+                                                                        @RequestParam("fields") String fields,
+                                                                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return service.getMoviesInfoFieldsPage(year, after, limit, fields)
+                .map(page -> toPageResponse(page, accept));
     }
 
-    @GetMapping
-    public Flux<MovieInfo> getAll(@RequestParam(value = "year", required = false) Integer year) {
-        if (year != null) {
-            return service.getMoviesByYear(year);
+    @GetMapping("/search")
+    public Mono<List<MovieInfo>> search(@RequestParam("q") String query,
+                                        @RequestParam(value = "limit", required = false) Integer limit,
+                                        @RequestParam(value = "offset", required = false) Integer offset) {
+        return searchService.search(query, limit, offset);
+    }
+
+    private <T> ResponseEntity<List<T>> toPageResponse(MovieInfoPage<T> page, String accept) {
+        var response = ResponseEntity.ok()
+                .eTag(EntityTags.forPage(page.items(), page.continuationToken(), accept));
+        cacheControl(response, cacheProperties.getList());
+        if (page.continuationToken() != null) {
+            response.header(CONTINUATION_TOKEN_HEADER, page.continuationToken());
         }
-        return service.getAllMoviesInfo();
+        return response.body(page.items());
     }
 
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<MovieInfo>> getById(@PathVariable String id) {
-        return service.getMovieInfoById(id)
-                .map(ResponseEntity::ok)
+    public Mono<ResponseEntity<MovieInfo>> getById(@PathVariable String id,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Mono<ResponseEntity<MovieInfo>> fullResponse = Mono.defer(() -> service.getMovieInfoById(id))
+                .map(movieInfo -> toVersionedResponse(movieInfo, cacheProperties.getById()))
                 .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
+        if (ifNoneMatch == null) {
+            return fullResponse;
+        }
+        return service.getMovieInfoVersion(id)
+                .map(EntityTags::forVersion)
+                .filter(entityTag -> EntityTags.matchesAny(ifNoneMatch, entityTag))
+                .map(entityTag -> {
+                    var response = ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entityTag);
+                    cacheControl(response, cacheProperties.getById());
+                    return response.<MovieInfo>build();
+                })
+                .switchIfEmpty(fullResponse);
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Mono<MovieInfo> create(@RequestBody @Valid MovieInfo movieInfo) {
+    public Mono<MovieInfo> create(@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                  @RequestBody @Valid MovieInfo movieInfo,
+                                  ServerHttpRequest request) {
+        if (idempotencyKey == null) {
+            return createAndPublish(movieInfo);
+        }
+        // the same identity the rate limiter charges, so only configured API keys get a scope of their own
+        return idempotencyStore.execute(clientIdentity.of(request), idempotencyKey, movieInfo, () -> createAndPublish(movieInfo));
+    }
+
+    private Mono<MovieInfo> createAndPublish(MovieInfo movieInfo) {
         return service.createMovieInfo(movieInfo)
-                .doOnNext(moviesInfoSink::tryEmitNext);
+                .doOnNext(created -> streamBuffer.publishLocal(MovieInfoEventType.INSERT, created));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkItemResult> bulkCreate(@RequestBody Flux<MovieInfo> moviesInfo) {
+        return service.bulkCreateMovieInfo(moviesInfo, created -> streamBuffer.publishLocal(MovieInfoEventType.INSERT, created));
     }
 
     @PutMapping("/{id}")
     public Mono<ResponseEntity<MovieInfo>> update(@PathVariable String id, @RequestBody MovieInfo movieInfo) {
         return service.updateMovieInfo(id, movieInfo)
-                .map(ResponseEntity.ok()::body)
+                .doOnNext(updated -> streamBuffer.publishLocal(MovieInfoEventType.UPDATE, updated))
+                .map(this::toVersionedResponse)
+                .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<MovieInfo>> patch(@PathVariable String id,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                 @RequestBody @Valid MovieInfoPatch patch) {
+        return Mono.defer(() -> service.patchMovieInfo(id, patch, expectedVersion(ifMatch)))
+                .doOnNext(patched -> streamBuffer.publishLocal(MovieInfoEventType.UPDATE, patched))
+                .map(this::toVersionedResponse)
                 .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
     }
 
+    private ResponseEntity<MovieInfo> toVersionedResponse(MovieInfo movieInfo) {
+        return toVersionedResponse(movieInfo, null);
+    }
+
+    private ResponseEntity<MovieInfo> toVersionedResponse(MovieInfo movieInfo, String cacheControl) {
+        var response = ResponseEntity.ok();
+        if (movieInfo.getVersion() != null) {
+            response.eTag(EntityTags.forVersion(movieInfo.getVersion()));
+        }
+        cacheControl(response, cacheControl);
+        return response.body(movieInfo);
+    }
+
+    private static void cacheControl(ResponseEntity.HeadersBuilder<?> response, String cacheControl) {
+        if (cacheControl != null && !cacheControl.isBlank()) {
+            response.header(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+    }
+
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new MalformedPreconditionException("If-Match must be a single strong entity tag");
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new MalformedPreconditionException("If-Match " + tag + " does not identify a movie info version");
+        }
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public Mono<Void> delete(@PathVariable String id) {
-        return service.deleteMovieInfo(id);
+        return service.deleteMovieInfo(id)
+                .filter(Boolean::booleanValue)
+                .doOnNext(deleted -> streamBuffer.publishLocal(MovieInfoEventType.DELETE, MovieInfo.builder().id(id).build()))
+                .then();
     }
 }
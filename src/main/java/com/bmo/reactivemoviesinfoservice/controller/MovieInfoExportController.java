@@ -0,0 +1,26 @@
+package com.bmo.reactivemoviesinfoservice.controller;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoExportItem;
+import com.bmo.reactivemoviesinfoservice.service.MovieInfoExportService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/v1/moviesInfo/export")
+public class MovieInfoExportController {
+
+    private MovieInfoExportService exportService;
+
+    public MovieInfoExportController(MovieInfoExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MovieInfoExportItem> export(@RequestParam(value = "checkpoint", required = false) String checkpoint) {
+        return exportService.export(checkpoint);
+    }
+}
@@ -0,0 +1,24 @@
+package com.bmo.reactivemoviesinfoservice.controller;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoStats;
+import com.bmo.reactivemoviesinfoservice.service.MovieInfoStatsService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/v1/moviesInfo/stats")
+public class MovieInfoStatsController {
+
+    private MovieInfoStatsService statsService;
+
+    public MovieInfoStatsController(MovieInfoStatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    @GetMapping
+    public Mono<MovieInfoStats> getStats() {
+        return statsService.getStats();
+    }
+}
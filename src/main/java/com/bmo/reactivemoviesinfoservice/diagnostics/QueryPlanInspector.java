@@ -0,0 +1,107 @@
+package com.bmo.reactivemoviesinfoservice.diagnostics;
+
+import com.bmo.reactivemoviesinfoservice.config.DiagnosticsProperties;
+import com.bmo.reactivemoviesinfoservice.config.InMemoryRepositoryConfiguration;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@Profile("!" + InMemoryRepositoryConfiguration.PROFILE)
+public class QueryPlanInspector {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(QueryPlanInspector.class);
+
+    private static final Document BY_ID = new Document("_id", 1);
+
+    private static final Document AFTER_STRING_ID = new Document("$or", List.of(
+            new Document("_id", new Document("$gt", "probe")),
+            new Document("_id", new Document("$type", "objectId"))));
+
+    private static final List<QueryShape> QUERY_SHAPES = List.of(
+            new QueryShape("findByYear", new Document("year", 1977), null, false),
+            new QueryShape("findByName", new Document("name", "probe"), null, false),
+            new QueryShape("findAllBy(Pageable)", new Document(), BY_ID, false),
+            new QueryShape("findByIdGreaterThan(Pageable)", AFTER_STRING_ID, BY_ID, false),
+            new QueryShape("findByYear(Pageable)", new Document("year", 1977), BY_ID, false),
+            new QueryShape("findByYearAndIdGreaterThan(Pageable)",
+                    new Document("year", 1977).append("$or", AFTER_STRING_ID.get("$or")), BY_ID, false),
+            // the stages after it rank and cut in memory, only the $match can use an index
+            new QueryShape("searchRanked($match)", new Document("$or", List.of(
+                    new Document("nameKeys", new Document("$regex", "^probe")),
+                    new Document("castKeys", new Document("$regex", "^probe")))), null, true)
+    );
+
+    private record QueryShape(String name, Document filter, Document sort, boolean aggregation) {
+    }
+
+    private ReactiveMongoOperations mongoOperations;
+
+    private DiagnosticsProperties properties;
+
+    public QueryPlanInspector(ReactiveMongoOperations mongoOperations, DiagnosticsProperties properties) {
+        this.mongoOperations = mongoOperations;
+        this.properties = properties;
+    }
+
+    public Flux<QueryPlanReport> inspect() {
+        return mongoOperations.getCollection(mongoOperations.getCollectionName(MovieInfo.class))
+                .flatMapMany(collection -> Flux.fromIterable(QUERY_SHAPES)
+                        .concatMap(shape -> Mono.from(shape.aggregation()
+                                        ? collection.aggregate(List.of(new Document("$match", shape.filter()))).explain()
+                                        : collection.find(shape.filter()).sort(shape.sort()).explain())
+                                .map(explain -> toReport(shape, explain))));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkOnStartup() {
+        if (!properties.isQueryPlanCheckOnStartup()) {
+            return;
+        }
+        inspect().filter(QueryPlanReport::collectionScan)
+                .subscribe(report -> LOGGER.warn("query {} falls back to a collection scan, plan stages: {}", report.query(), report.stages()),
+                        error -> LOGGER.warn("unable to inspect query plans: {}", error.getMessage()));
+    }
+
+    private static QueryPlanReport toReport(QueryShape shape, Document explain) {
+        Object winningPlan = queryPlanner(explain).get("winningPlan");
+        List<String> stages = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        collectStages(winningPlan, stages, indexes);
+        return new QueryPlanReport(shape.name(), stages, indexes, stages.contains("COLLSCAN"));
+    }
+
+    // an aggregation the server cannot fold into a find reports its plan under the leading $cursor stage
+    private static Document queryPlanner(Document explain) {
+        if (explain.containsKey("queryPlanner")) {
+            return explain.get("queryPlanner", Document.class);
+        }
+        Document cursor = explain.getList("stages", Document.class).get(0).get("$cursor", Document.class);
+        return cursor.get("queryPlanner", Document.class);
+    }
+
+    private static void collectStages(Object node, List<String> stages, List<String> indexes) {
+        if (node instanceof Document document) {
+            if (document.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            if (document.get("indexName") instanceof String indexName && !indexes.contains(indexName)) {
+                indexes.add(indexName);
+            }
+            document.values().forEach(value -> collectStages(value, stages, indexes));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages, indexes));
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.bmo.reactivemoviesinfoservice.diagnostics;
+
+import java.util.List;
+
+public record QueryPlanReport(String query, List<String> stages, List<String> indexes, boolean collectionScan) {
+}
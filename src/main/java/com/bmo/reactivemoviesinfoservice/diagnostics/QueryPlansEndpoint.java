@@ -0,0 +1,27 @@
+package com.bmo.reactivemoviesinfoservice.diagnostics;
+
+import com.bmo.reactivemoviesinfoservice.config.InMemoryRepositoryConfiguration;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Component
+@Profile("!" + InMemoryRepositoryConfiguration.PROFILE)
+@Endpoint(id = "queryplans")
+public class QueryPlansEndpoint {
+
+    private QueryPlanInspector inspector;
+
+    public QueryPlansEndpoint(QueryPlanInspector inspector) {
+        this.inspector = inspector;
+    }
+
+    @ReadOperation
+    public Mono<List<QueryPlanReport>> queryPlans() {
+        return inspector.inspect().collectList();
+    }
+}
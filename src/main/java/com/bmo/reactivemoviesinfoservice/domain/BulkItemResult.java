@@ -0,0 +1,14 @@
+package com.bmo.reactivemoviesinfoservice.domain;
+
+import java.util.List;
+
+public record BulkItemResult(long index, String id, ErrorResponse error) {
+
+    public static BulkItemResult accepted(long index, String id) {
+        return new BulkItemResult(index, id, null);
+    }
+
+    public static BulkItemResult rejected(long index, String id, List<String> errors) {
+        return new BulkItemResult(index, id, new ErrorResponse(errors));
+    }
+}
@@ -9,6 +9,10 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -18,21 +22,32 @@ import java.util.UUID;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Document
+@CompoundIndexes({
+        @CompoundIndex(name = "year_name", def = "{'year': 1, 'name': 1}"),
+        @CompoundIndex(name = "year_id", def = "{'year': 1, '_id': 1}"),
+        @CompoundIndex(name = "name_keys", def = "{'nameKeys': 1}"),
+        @CompoundIndex(name = "cast_keys", def = "{'castKeys': 1}")
+})
 public class MovieInfo {
     @Id
     private String id;
 
     @NotBlank(message = "name must not be blank")
+    @Indexed
     private String name;
 
     @Positive(message = "year must be a positive number")
     private Integer year;
 
+    @Indexed
     private List<@NotBlank(message = "cast must not be blank") String> cast;
 
     @NotNull(message = "releaseDate cannot be null")
     private LocalDate releaseDate;
 
+    @Version
+    private Long version;
+
 }
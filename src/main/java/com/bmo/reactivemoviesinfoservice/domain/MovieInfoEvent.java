@@ -0,0 +1,6 @@
+package com.bmo.reactivemoviesinfoservice.domain;
+
+import java.time.Instant;
+
+public record MovieInfoEvent(long sequence, Instant timestamp, MovieInfoEventType type, MovieInfo movieInfo) {
+}
@@ -0,0 +1,12 @@
+package com.bmo.reactivemoviesinfoservice.domain;
+
+public enum MovieInfoEventType {
+    INSERT,
+    UPDATE,
+    DELETE,
+    // events were missed, subscribers must reload what they hold, movieInfo is null
+    GAP,
+    // an acknowledged buffered update was dropped because another write changed the document first,
+    // movieInfo is the dropped update with the version its client was given
+    CONFLICT
+}
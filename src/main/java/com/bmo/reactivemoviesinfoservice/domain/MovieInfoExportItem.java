@@ -0,0 +1,19 @@
+package com.bmo.reactivemoviesinfoservice.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MovieInfoExportItem(MovieInfo movieInfo, String checkpoint, Boolean complete) {
+
+    public static MovieInfoExportItem of(MovieInfo movieInfo) {
+        return new MovieInfoExportItem(movieInfo, null, null);
+    }
+
+    public static MovieInfoExportItem checkpoint(String checkpoint) {
+        return new MovieInfoExportItem(null, checkpoint, null);
+    }
+
+    public static MovieInfoExportItem completed(String checkpoint) {
+        return new MovieInfoExportItem(null, checkpoint, Boolean.TRUE);
+    }
+}
@@ -0,0 +1,29 @@
+package com.bmo.reactivemoviesinfoservice.domain;
+
+import java.util.function.Function;
+
+public enum MovieInfoField {
+    ID("id", MovieInfo::getId),
+    NAME("name", MovieInfo::getName),
+    YEAR("year", MovieInfo::getYear),
+    CAST("cast", MovieInfo::getCast),
+    RELEASE_DATE("releaseDate", MovieInfo::getReleaseDate),
+    VERSION("version", MovieInfo::getVersion);
+
+    private final String property;
+
+    private final Function<MovieInfo, Object> accessor;
+
+    MovieInfoField(String property, Function<MovieInfo, Object> accessor) {
+        this.property = property;
+        this.accessor = accessor;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public Object valueOf(MovieInfo movieInfo) {
+        return accessor.apply(movieInfo);
+    }
+}
@@ -0,0 +1,6 @@
+package com.bmo.reactivemoviesinfoservice.domain;
+
+import java.util.List;
+
+public record MovieInfoPage<T>(List<T> items, String continuationToken) {
+}
@@ -0,0 +1,15 @@
+package com.bmo.reactivemoviesinfoservice.domain;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record MovieInfoPatch(
+        @Pattern(regexp = ".*\\S.*", message = "name must not be blank") String name,
+        @Positive(message = "year must be a positive number") Integer year,
+        List<@NotBlank(message = "cast must not be blank") String> cast,
+        LocalDate releaseDate) {
+}
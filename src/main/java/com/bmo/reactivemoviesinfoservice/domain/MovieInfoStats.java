@@ -0,0 +1,7 @@
+package com.bmo.reactivemoviesinfoservice.domain;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record MovieInfoStats(long total, Map<Integer, Long> byYear, Map<String, Long> byCast, Instant computedAt) {
+}
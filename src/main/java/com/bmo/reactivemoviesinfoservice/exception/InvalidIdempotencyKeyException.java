@@ -0,0 +1,8 @@
+package com.bmo.reactivemoviesinfoservice.exception;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.bmo.reactivemoviesinfoservice.exception;
+
+public class MalformedPreconditionException extends RuntimeException {
+
+    public MalformedPreconditionException(String message) {
+        super(message);
+    }
+}
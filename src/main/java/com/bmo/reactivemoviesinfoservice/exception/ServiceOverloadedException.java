@@ -0,0 +1,8 @@
+package com.bmo.reactivemoviesinfoservice.exception;
+
+public class ServiceOverloadedException extends RuntimeException {
+
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
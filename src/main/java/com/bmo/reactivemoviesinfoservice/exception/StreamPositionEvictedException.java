@@ -0,0 +1,8 @@
+package com.bmo.reactivemoviesinfoservice.exception;
+
+public class StreamPositionEvictedException extends RuntimeException {
+
+    public StreamPositionEvictedException(String message) {
+        super(message);
+    }
+}
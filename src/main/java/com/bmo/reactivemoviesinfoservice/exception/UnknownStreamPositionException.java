@@ -0,0 +1,8 @@
+package com.bmo.reactivemoviesinfoservice.exception;
+
+public class UnknownStreamPositionException extends RuntimeException {
+
+    public UnknownStreamPositionException(String message) {
+        super(message);
+    }
+}
@@ -1,9 +1,18 @@
 package com.bmo.reactivemoviesinfoservice.exception.handler;
 
 import com.bmo.reactivemoviesinfoservice.domain.ErrorResponse;
+import com.bmo.reactivemoviesinfoservice.exception.IdempotencyKeyReusedException;
+import com.bmo.reactivemoviesinfoservice.exception.InvalidIdempotencyKeyException;
+import com.bmo.reactivemoviesinfoservice.exception.InvalidPageRequestException;
+import com.bmo.reactivemoviesinfoservice.exception.MalformedPreconditionException;
+import com.bmo.reactivemoviesinfoservice.exception.ServiceOverloadedException;
+import com.bmo.reactivemoviesinfoservice.exception.StreamPositionEvictedException;
+import com.bmo.reactivemoviesinfoservice.exception.UnknownStreamPositionException;
+import com.bmo.reactivemoviesinfoservice.exception.VersionConflictException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -29,4 +38,76 @@ public class GlobalErrorHandler {
                 .toList();
         return new ErrorResponse(errorsList);
     }
+
+    @ExceptionHandler(StreamPositionEvictedException.class)
+    @ResponseStatus(HttpStatus.GONE)
+    @ResponseBody
+    public ErrorResponse streamPositionEvicted(final StreamPositionEvictedException streamPositionEvictedException) {
+        LOGGER.warn("stream resume rejected: {}", streamPositionEvictedException.getMessage());
+        return new ErrorResponse(List.of(streamPositionEvictedException.getMessage()));
+    }
+
+    @ExceptionHandler(UnknownStreamPositionException.class)
+    @ResponseStatus(HttpStatus.GONE)
+    @ResponseBody
+    public ErrorResponse unknownStreamPosition(final UnknownStreamPositionException unknownStreamPositionException) {
+        LOGGER.warn("stream resume rejected: {}", unknownStreamPositionException.getMessage());
+        return new ErrorResponse(List.of(unknownStreamPositionException.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidPageRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    public ErrorResponse invalidPageRequest(final InvalidPageRequestException invalidPageRequestException) {
+        LOGGER.warn("invalid page request: {}", invalidPageRequestException.getMessage());
+        return new ErrorResponse(List.of(invalidPageRequestException.getMessage()));
+    }
+
+    @ExceptionHandler(VersionConflictException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    @ResponseBody
+    public ErrorResponse versionConflict(final VersionConflictException versionConflictException) {
+        LOGGER.warn("conditional update rejected: {}", versionConflictException.getMessage());
+        return new ErrorResponse(List.of(versionConflictException.getMessage()));
+    }
+
+    @ExceptionHandler(MalformedPreconditionException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    public ErrorResponse malformedPrecondition(final MalformedPreconditionException malformedPreconditionException) {
+        LOGGER.warn("malformed precondition header: {}", malformedPreconditionException.getMessage());
+        return new ErrorResponse(List.of(malformedPreconditionException.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    public ErrorResponse invalidIdempotencyKey(final InvalidIdempotencyKeyException invalidIdempotencyKeyException) {
+        LOGGER.warn("invalid idempotency key: {}", invalidIdempotencyKeyException.getMessage());
+        return new ErrorResponse(List.of(invalidIdempotencyKeyException.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    @ResponseBody
+    public ErrorResponse idempotencyKeyReused(final IdempotencyKeyReusedException idempotencyKeyReusedException) {
+        LOGGER.warn("idempotency key reuse rejected: {}", idempotencyKeyReusedException.getMessage());
+        return new ErrorResponse(List.of(idempotencyKeyReusedException.getMessage()));
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ResponseBody
+    public ErrorResponse serviceOverloaded(final ServiceOverloadedException serviceOverloadedException) {
+        LOGGER.warn("request shed under load: {}", serviceOverloadedException.getMessage());
+        return new ErrorResponse(List.of(serviceOverloadedException.getMessage()));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ResponseBody
+    public ErrorResponse optimisticLockingFailure(final OptimisticLockingFailureException optimisticLockingFailureException) {
+        LOGGER.warn("concurrent update detected: {}", optimisticLockingFailureException.getMessage());
+        return new ErrorResponse(List.of("movie info was modified concurrently, retry the request"));
+    }
 }
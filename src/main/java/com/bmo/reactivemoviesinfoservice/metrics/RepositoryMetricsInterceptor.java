@@ -0,0 +1,60 @@
+package com.bmo.reactivemoviesinfoservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    public static final String METRIC_NAME = "movies.info.repository.invocations";
+
+    private MeterRegistry registry;
+
+    private String repository;
+
+    public RepositoryMetricsInterceptor(MeterRegistry registry, String repository) {
+        this.registry = registry;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        String method = invocation.getMethod().getName();
+        if (result instanceof Mono<?> mono) {
+            return Mono.defer(() -> {
+                Timer.Sample sample = Timer.start(registry);
+                return mono.doFinally(signalType -> stop(sample, method, signalType));
+            });
+        }
+        if (result instanceof Flux<?> flux) {
+            return Flux.defer(() -> {
+                Timer.Sample sample = Timer.start(registry);
+                return flux.doFinally(signalType -> stop(sample, method, signalType));
+            });
+        }
+        return result;
+    }
+
+    private void stop(Timer.Sample sample, String method, SignalType signalType) {
+        sample.stop(Timer.builder(METRIC_NAME)
+                .description("Time from subscription to termination of reactive repository calls")
+                .tag("repository", repository)
+                .tag("method", method)
+                .tag("outcome", outcome(signalType))
+                .register(registry));
+    }
+
+    private static String outcome(SignalType signalType) {
+        return switch (signalType) {
+            case ON_COMPLETE -> "success";
+            case ON_ERROR -> "error";
+            case CANCEL -> "cancelled";
+            default -> "unknown";
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package com.bmo.reactivemoviesinfoservice.ratelimit;
+
+import com.bmo.reactivemoviesinfoservice.config.RateLimitProperties;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+
+// who a request is charged to: a configured API key, otherwise the client address behind any trusted proxies;
+// an unknown API key is ignored so a client cannot pick its own identity
+public class ClientIdentity {
+
+    private static final String UNKNOWN_CLIENT = "unknown";
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private RateLimitProperties properties;
+
+    public ClientIdentity(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    public String of(ServerHttpRequest request) {
+        String apiKey = request.getHeaders().getFirst(properties.getClientHeader());
+        if (apiKey != null && properties.getApiKeys().contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        String address = clientAddress(request);
+        return address == null ? UNKNOWN_CLIENT : "ip:" + address;
+    }
+
+    // walks X-Forwarded-For from the nearest hop and stops at the first address not owned by a trusted proxy
+    private String clientAddress(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return null;
+        }
+        String address = remoteAddress.getAddress().getHostAddress();
+        List<String> forwardedFor = request.getHeaders().getOrDefault(FORWARDED_FOR, List.of());
+        if (forwardedFor.isEmpty() || !properties.getTrustedProxies().contains(address)) {
+            return address;
+        }
+        List<String> hops = forwardedFor.stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .filter(hop -> !hop.isEmpty())
+                .toList();
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            address = hops.get(i);
+            if (!properties.getTrustedProxies().contains(address)) {
+                return address;
+            }
+        }
+        return address;
+    }
+}
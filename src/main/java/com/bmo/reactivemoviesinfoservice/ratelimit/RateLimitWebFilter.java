@@ -0,0 +1,87 @@
+package com.bmo.reactivemoviesinfoservice.ratelimit;
+
+import com.bmo.reactivemoviesinfoservice.config.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RateLimitWebFilter implements WebFilter, MeterBinder {
+
+    private record BucketKey(String client, RouteClass routeClass) {
+    }
+
+    private RateLimitProperties properties;
+
+    private ClientIdentity clientIdentity;
+
+    private Cache<BucketKey, TokenBucket> buckets;
+
+    private final Map<RouteClass, LongAdder> rejections = new EnumMap<>(RouteClass.class);
+
+    public RateLimitWebFilter(RateLimitProperties properties, ClientIdentity clientIdentity) {
+        this.properties = properties;
+        this.clientIdentity = clientIdentity;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumClients())
+                .expireAfterAccess(properties.getClientIdleTimeout())
+                .build();
+        for (RouteClass routeClass : RouteClass.values()) {
+            rejections.put(routeClass, new LongAdder());
+            // fail at startup on a budget that cannot build a bucket rather than on the first request of that class
+            newBucket(routeClass, 0);
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        RouteClass routeClass = RouteClass.of(request);
+        if (routeClass == null) {
+            return chain.filter(exchange);
+        }
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(new BucketKey(clientIdentity.of(request), routeClass), key -> newBucket(key.routeClass(), now));
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos == 0) {
+            return chain.filter(exchange);
+        }
+        rejections.get(routeClass).increment();
+        var response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1))));
+        return response.setComplete();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        rejections.forEach((routeClass, count) -> FunctionCounter.builder("movies.info.rate.limit.rejected", count, LongAdder::sum)
+                .description("Requests rejected with 429 by the per-client rate limiter")
+                .tag("route", routeClass.name().toLowerCase(Locale.ROOT))
+                .register(registry));
+    }
+
+    private TokenBucket newBucket(RouteClass routeClass, long now) {
+        RateLimitProperties.Budget budget = switch (routeClass) {
+            case READ -> properties.getRead();
+            case WRITE -> properties.getWrite();
+            case STREAM -> properties.getStream();
+        };
+        return new TokenBucket(budget.getPermitsPerSecond(), budget.getBurst(), now);
+    }
+}
@@ -0,0 +1,94 @@
+package com.bmo.reactivemoviesinfoservice.ratelimit;
+
+import com.bmo.reactivemoviesinfoservice.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RepositoryAdmissionInterceptor implements MethodInterceptor, MeterBinder {
+
+    private final int maxConcurrentCalls;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder rejections = new LongAdder();
+
+    public RepositoryAdmissionInterceptor(int maxConcurrentCalls) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        if (maxConcurrentCalls <= 0) {
+            return result;
+        }
+        if (result instanceof Mono<?> mono) {
+            return Mono.defer(() -> {
+                AtomicBoolean permit = acquire();
+                if (permit == null) {
+                    return Mono.error(overloaded());
+                }
+                return mono.doFinally(signalType -> release(permit));
+            });
+        }
+        if (result instanceof Flux<?> flux) {
+            return Flux.defer(() -> {
+                AtomicBoolean permit = acquire();
+                if (permit == null) {
+                    return Flux.error(overloaded());
+                }
+                // the limit guards query admission, a stream or export that is slowly drained by its client must not keep the permit
+                return flux.doOnEach(signal -> release(permit))
+                        .doFinally(signalType -> release(permit));
+            });
+        }
+        return result;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("movies.info.repository.in.flight", inFlight, AtomicInteger::get)
+                .description("Repository calls currently holding an admission permit")
+                .register(registry);
+        FunctionCounter.builder("movies.info.repository.rejected", rejections, LongAdder::sum)
+                .description("Repository calls shed because the concurrency limit was reached")
+                .register(registry);
+    }
+
+    private AtomicBoolean acquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxConcurrentCalls) {
+                rejections.increment();
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new AtomicBoolean(true);
+            }
+        }
+    }
+
+    private void release(AtomicBoolean permit) {
+        if (permit.compareAndSet(true, false)) {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private ServiceOverloadedException overloaded() {
+        return new ServiceOverloadedException("too many concurrent requests, retry later");
+    }
+}
@@ -0,0 +1,33 @@
+package com.bmo.reactivemoviesinfoservice.ratelimit;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.util.Set;
+
+enum RouteClass {
+    READ,
+    WRITE,
+    STREAM;
+
+    private static final String MOVIES_INFO_PATH = "/v1/moviesInfo";
+
+    // exact routes, an item id such as "streamline" must stay in the read and write classes
+    private static final Set<String> STREAM_PATHS = Set.of(
+            MOVIES_INFO_PATH + "/stream", MOVIES_INFO_PATH + "/stream/events", MOVIES_INFO_PATH + "/export");
+
+    static RouteClass of(ServerHttpRequest request) {
+        String path = request.getPath().pathWithinApplication().value();
+        if (!path.equals(MOVIES_INFO_PATH) && !path.startsWith(MOVIES_INFO_PATH + "/")) {
+            return null;
+        }
+        if (STREAM_PATHS.contains(path)) {
+            return STREAM;
+        }
+        HttpMethod method = request.getMethod();
+        if (HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method)) {
+            return READ;
+        }
+        return WRITE;
+    }
+}
@@ -0,0 +1,36 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+
+// _id holds client-supplied strings next to generated ObjectIds. BSON sorts every string before every ObjectId and $gt
+// only matches values of its own type, so a cursor positioned on a string id also has to take all ObjectIds.
+public final class IdCursor {
+
+    private IdCursor() {
+    }
+
+    public static Criteria after(final String afterId) {
+        // the same rule the mapping layer uses to store an id as an ObjectId
+        if (ObjectId.isValid(afterId)) {
+            return Criteria.where("id").gt(new ObjectId(afterId));
+        }
+        return new Criteria().orOperator(
+                Criteria.where("id").gt(afterId),
+                Criteria.where("id").type(JsonSchemaObject.Type.OBJECT_ID));
+    }
+
+    public static Query pageQuery(final Integer year, final String afterId, final Pageable pageable) {
+        Query query = new Query().with(pageable);
+        if (year != null) {
+            query.addCriteria(Criteria.where("year").is(year));
+        }
+        if (afterId != null) {
+            query.addCriteria(after(afterId));
+        }
+        return query;
+    }
+}
@@ -0,0 +1,514 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoStats;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.support.ExampleMatcherAccessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.beans.PropertyDescriptor;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class InMemoryMovieRepository implements MovieRepository {
+
+    private static final String ID = "id";
+
+    private static final Comparator<Object> NULLS_FIRST = Comparator.nullsFirst(InMemoryMovieRepository::compareValues);
+
+    private InMemoryMovieStore store;
+
+    public InMemoryMovieRepository(InMemoryMovieStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public <S extends MovieInfo> Mono<S> save(S entity) {
+        return Mono.fromCallable(() -> {
+            store.save(entity);
+            return entity;
+        });
+    }
+
+    @Override
+    public <S extends MovieInfo> Flux<S> saveAll(Iterable<S> entities) {
+        return Flux.fromIterable(entities).concatMap(this::save);
+    }
+
+    @Override
+    public <S extends MovieInfo> Flux<S> saveAll(Publisher<S> entityStream) {
+        return Flux.from(entityStream).concatMap(this::save);
+    }
+
+    @Override
+    public <S extends MovieInfo> Mono<S> insert(S entity) {
+        return Mono.fromCallable(() -> {
+            store.insert(entity);
+            return entity;
+        });
+    }
+
+    @Override
+    public <S extends MovieInfo> Flux<S> insert(Iterable<S> entities) {
+        return Flux.fromIterable(entities).concatMap(this::insert);
+    }
+
+    @Override
+    public <S extends MovieInfo> Flux<S> insert(Publisher<S> entities) {
+        return Flux.from(entities).concatMap(this::insert);
+    }
+
+    @Override
+    public Mono<MovieInfo> findById(String id) {
+        return Mono.fromSupplier(() -> store.get(id));
+    }
+
+    @Override
+    public Mono<MovieInfo> findById(Publisher<String> id) {
+        return Mono.from(id).flatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(String id) {
+        return Mono.fromSupplier(() -> store.contains(id));
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Publisher<String> id) {
+        return Mono.from(id).flatMap(this::existsById);
+    }
+
+    @Override
+    public Flux<MovieInfo> findAll() {
+        return Flux.defer(() -> Flux.fromStream(store.all(null)));
+    }
+
+    @Override
+    public Flux<MovieInfo> findAll(Sort sort) {
+        return Flux.defer(() -> Flux.fromStream(sorted(store.all(null), sort)));
+    }
+
+    @Override
+    public Flux<MovieInfo> findAllById(Iterable<String> ids) {
+        return Flux.fromIterable(ids).concatMap(this::findById);
+    }
+
+    @Override
+    public Flux<MovieInfo> findAllById(Publisher<String> idStream) {
+        return Flux.from(idStream).concatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return Mono.fromSupplier(() -> (long) store.size());
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return Mono.fromRunnable(() -> store.remove(id));
+    }
+
+    @Override
+    public Mono<Long> removeById(String id) {
+        return Mono.fromSupplier(() -> store.remove(id) ? 1L : 0L);
+    }
+
+    @Override
+    public Mono<Void> deleteById(Publisher<String> id) {
+        return Mono.from(id).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(MovieInfo entity) {
+        return deleteById(entity.getId());
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Iterable<? extends String> ids) {
+        return Flux.fromIterable(ids).concatMap(this::deleteById).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Iterable<? extends MovieInfo> entities) {
+        return Flux.fromIterable(entities).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Publisher<? extends MovieInfo> entityStream) {
+        return Flux.from(entityStream).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return Mono.fromRunnable(store::clear);
+    }
+
+    @Override
+    public Flux<MovieInfo> findByYear(int year) {
+        return Flux.defer(() -> Flux.fromStream(store.byYear(year, null)));
+    }
+
+    @Override
+    public Flux<MovieInfo> findByName(String name) {
+        return Flux.defer(() -> Flux.fromStream(store.byName(name)));
+    }
+
+    @Override
+    public Flux<MovieInfo> findAllBy(Pageable pageable) {
+        return Flux.defer(() -> Flux.fromStream(page(store.all(null), pageable)));
+    }
+
+    @Override
+    public Flux<MovieInfo> findByIdGreaterThan(String id, Pageable pageable) {
+        return Flux.defer(() -> Flux.fromStream(page(store.all(id), pageable)));
+    }
+
+    @Override
+    public Flux<MovieInfo> findByYear(int year, Pageable pageable) {
+        return Flux.defer(() -> Flux.fromStream(page(store.byYear(year, null), pageable)));
+    }
+
+    @Override
+    public Flux<MovieInfo> findByYearAndIdGreaterThan(int year, String id, Pageable pageable) {
+        return Flux.defer(() -> Flux.fromStream(page(store.byYear(year, id), pageable)));
+    }
+
+    @Override
+    public Mono<Map<Integer, String>> insertAllUnordered(List<MovieInfo> moviesInfo) {
+        return Mono.fromSupplier(() -> {
+            Map<Integer, String> failuresByIndex = new HashMap<>();
+            for (int i = 0; i < moviesInfo.size(); i++) {
+                try {
+                    store.insert(moviesInfo.get(i));
+                } catch (DuplicateKeyException e) {
+                    failuresByIndex.put(i, e.getMessage());
+                }
+            }
+            return failuresByIndex;
+        });
+    }
+
+    @Override
+    public Mono<Set<String>> updateAllUnordered(List<VersionedUpdate> updates) {
+        return Mono.fromSupplier(() -> {
+            Set<String> conflicts = new HashSet<>();
+            for (VersionedUpdate update : updates) {
+                MovieInfo changes = update.movieInfo();
+                MovieInfo updated = store.update(changes.getId(), update.expectedVersion(), movieInfo -> {
+                    movieInfo.setName(changes.getName());
+                    movieInfo.setYear(changes.getYear());
+                    movieInfo.setCast(changes.getCast());
+                    movieInfo.setReleaseDate(changes.getReleaseDate());
+                    movieInfo.setVersion(changes.getVersion());
+                });
+                if (updated == null) {
+                    conflicts.add(changes.getId());
+                }
+            }
+            return conflicts;
+        });
+    }
+
+    @Override
+    public Mono<MovieInfo> updateFields(String id, Map<String, Object> fields, Long expectedVersion) {
+        return Mono.fromSupplier(() -> store.update(id, expectedVersion, movieInfo -> {
+            BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(movieInfo);
+            fields.forEach((field, value) -> {
+                if (wrapper.isWritableProperty(field)) {
+                    wrapper.setPropertyValue(field, value);
+                }
+            });
+        }));
+    }
+
+    @Override
+    public Flux<MovieInfo> findPage(Integer year, String afterId, Pageable pageable, Collection<String> fields) {
+        return Flux.defer(() -> {
+            Stream<MovieInfo> candidates = year == null ? store.all(afterId) : store.byYear(year, afterId);
+            return Flux.fromStream(page(candidates, pageable).map(movieInfo -> project(movieInfo, fields)));
+        });
+    }
+
+    @Override
+    public Mono<MovieInfo> findProjectedById(String id, Collection<String> fields) {
+        return findById(id).map(movieInfo -> project(movieInfo, fields));
+    }
+
+    @Override
+    public Flux<MovieInfo> exportAfter(String afterId, int batchSize) {
+        return Flux.defer(() -> Flux.fromStream(store.all(afterId))).limitRate(batchSize);
+    }
+
+    @Override
+    public Flux<MovieInfo> searchRanked(String normalizedPrefix, int skip, int limit) {
+        return Flux.defer(() -> {
+            Map<String, MovieInfo> matches = new LinkedHashMap<>();
+            Stream.concat(store.byNameKeyPrefix(normalizedPrefix), store.byCastKeyPrefix(normalizedPrefix))
+                    .forEach(movieInfo -> matches.putIfAbsent(movieInfo.getId(), movieInfo));
+            return Flux.fromStream(matches.values().stream()
+                    .sorted(Comparator.<MovieInfo>comparingInt(movieInfo -> SearchKeys.rank(movieInfo, normalizedPrefix))
+                            .thenComparing(MovieInfo::getId))
+                    .skip(skip)
+                    .limit(limit));
+        });
+    }
+
+    @Override
+    public Mono<MovieInfoStats> aggregateStats(int castLimit) {
+        return Mono.fromSupplier(() -> {
+            Map<String, Long> castCounts = store.all(null)
+                    .filter(movieInfo -> movieInfo.getCast() != null)
+                    .flatMap(movieInfo -> movieInfo.getCast().stream())
+                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+            Map<String, Long> byCast = castCounts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .limit(castLimit)
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (first, second) -> first, LinkedHashMap::new));
+            return new MovieInfoStats(store.size(), store.countByYear(), byCast, Instant.now());
+        });
+    }
+
+    @Override
+    public <S extends MovieInfo> Mono<S> findOne(Example<S> example) {
+        return exampleQuery(example).one();
+    }
+
+    @Override
+    public <S extends MovieInfo> Flux<S> findAll(Example<S> example) {
+        return exampleQuery(example).all();
+    }
+
+    @Override
+    public <S extends MovieInfo> Flux<S> findAll(Example<S> example, Sort sort) {
+        return exampleQuery(example).sortBy(sort).all();
+    }
+
+    @Override
+    public <S extends MovieInfo> Mono<Long> count(Example<S> example) {
+        return exampleQuery(example).count();
+    }
+
+    @Override
+    public <S extends MovieInfo> Mono<Boolean> exists(Example<S> example) {
+        return exampleQuery(example).exists();
+    }
+
+    @Override
+    public <S extends MovieInfo, R, P extends Publisher<R>> P findBy(Example<S> example,
+                                                                    Function<FluentQuery.ReactiveFluentQuery<S>, P> queryFunction) {
+        return queryFunction.apply(exampleQuery(example));
+    }
+
+    private <S extends MovieInfo> ExampleQuery<S> exampleQuery(Example<S> example) {
+        return new ExampleQuery<>(example, Sort.unsorted(), List.of(), example.getProbeType());
+    }
+
+    // a scan of the store, like the mongo repository each non-null probe property is a condition unless the matcher says otherwise
+    private static Predicate<MovieInfo> matching(Example<? extends MovieInfo> example) {
+        ExampleMatcher matcher = example.getMatcher();
+        ExampleMatcherAccessor accessor = new ExampleMatcherAccessor(matcher);
+        BeanWrapper probe = PropertyAccessorFactory.forBeanPropertyAccess(example.getProbe());
+        List<Predicate<BeanWrapper>> conditions = new ArrayList<>();
+        for (PropertyDescriptor descriptor : probe.getPropertyDescriptors()) {
+            String path = descriptor.getName();
+            if (!probe.isWritableProperty(path) || accessor.isIgnoredPath(path)) {
+                continue;
+            }
+            Object expected = accessor.getValueTransformerForPath(path)
+                    .apply(Optional.ofNullable(probe.getPropertyValue(path)))
+                    .orElse(null);
+            if (expected == null && accessor.getNullHandler() == ExampleMatcher.NullHandler.IGNORE) {
+                continue;
+            }
+            conditions.add(candidate -> matchesValue(accessor, path, expected, candidate.getPropertyValue(path)));
+        }
+        Predicate<BeanWrapper> matches = matcher.isAllMatching() || conditions.isEmpty()
+                ? candidate -> conditions.stream().allMatch(condition -> condition.test(candidate))
+                : candidate -> conditions.stream().anyMatch(condition -> condition.test(candidate));
+        return movieInfo -> example.getProbeType().isInstance(movieInfo)
+                && matches.test(PropertyAccessorFactory.forBeanPropertyAccess(movieInfo));
+    }
+
+    private static boolean matchesValue(ExampleMatcherAccessor accessor, String path, Object expected, Object actual) {
+        if (expected == null || actual == null) {
+            return expected == actual;
+        }
+        if (!(expected instanceof String probe) || !(actual instanceof String value)) {
+            return expected.equals(actual);
+        }
+        boolean ignoreCase = accessor.isIgnoreCaseForPath(path);
+        ExampleMatcher.StringMatcher stringMatcher = accessor.getStringMatcherForPath(path);
+        if (stringMatcher == ExampleMatcher.StringMatcher.REGEX) {
+            return Pattern.compile(probe, ignoreCase ? Pattern.CASE_INSENSITIVE : 0).matcher(value).find();
+        }
+        if (ignoreCase) {
+            probe = probe.toLowerCase(Locale.ROOT);
+            value = value.toLowerCase(Locale.ROOT);
+        }
+        return switch (stringMatcher) {
+            case STARTING -> value.startsWith(probe);
+            case ENDING -> value.endsWith(probe);
+            case CONTAINING -> value.contains(probe);
+            default -> value.equals(probe);
+        };
+    }
+
+    private class ExampleQuery<T> implements FluentQuery.ReactiveFluentQuery<T> {
+
+        private final Example<? extends MovieInfo> example;
+
+        private final Sort sort;
+
+        private final Collection<String> fields;
+
+        private final Class<T> resultType;
+
+        ExampleQuery(Example<? extends MovieInfo> example, Sort sort, Collection<String> fields, Class<T> resultType) {
+            this.example = example;
+            this.sort = sort;
+            this.fields = fields;
+            this.resultType = resultType;
+        }
+
+        @Override
+        public FluentQuery.ReactiveFluentQuery<T> sortBy(Sort sort) {
+            return new ExampleQuery<>(example, this.sort.and(sort), fields, resultType);
+        }
+
+        @Override
+        public <R> FluentQuery.ReactiveFluentQuery<R> as(Class<R> resultType) {
+            if (!resultType.isAssignableFrom(MovieInfo.class)) {
+                throw new UnsupportedOperationException("the in-memory movie repository only returns movie info, not " + resultType.getName());
+            }
+            return new ExampleQuery<>(example, sort, fields, resultType);
+        }
+
+        @Override
+        public FluentQuery.ReactiveFluentQuery<T> project(Collection<String> properties) {
+            return new ExampleQuery<>(example, sort, List.copyOf(properties), resultType);
+        }
+
+        @Override
+        public Mono<T> one() {
+            return all().take(2).collectList().flatMap(results -> results.size() > 1
+                    ? Mono.error(new IncorrectResultSizeDataAccessException(1, results.size()))
+                    : Mono.justOrEmpty(results.stream().findFirst()));
+        }
+
+        @Override
+        public Mono<T> first() {
+            return all().next();
+        }
+
+        @Override
+        public Flux<T> all() {
+            return Flux.defer(() -> Flux.fromStream(results(sorted(candidates(), sort))));
+        }
+
+        @Override
+        public Mono<Page<T>> page(Pageable pageable) {
+            return Flux.defer(() -> Flux.fromStream(results(InMemoryMovieRepository.page(sorted(candidates(), sort), pageable))))
+                    .collectList()
+                    .zipWith(count(), (content, total) -> new PageImpl<>(content, pageable, total));
+        }
+
+        @Override
+        public Mono<Long> count() {
+            return Mono.fromSupplier(() -> candidates().count());
+        }
+
+        @Override
+        public Mono<Boolean> exists() {
+            return Mono.fromSupplier(() -> candidates().findAny().isPresent());
+        }
+
+        private Stream<MovieInfo> candidates() {
+            return store.all(null).filter(matching(example));
+        }
+
+        private Stream<T> results(Stream<MovieInfo> movieInfos) {
+            return movieInfos
+                    .map(movieInfo -> fields.isEmpty() ? movieInfo : InMemoryMovieRepository.project(movieInfo, fields))
+                    .map(resultType::cast);
+        }
+    }
+
+    private static Stream<MovieInfo> page(Stream<MovieInfo> candidates, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return sorted(candidates, pageable.getSort());
+        }
+        return sorted(candidates, pageable.getSort())
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize());
+    }
+
+    private static Stream<MovieInfo> sorted(Stream<MovieInfo> candidates, Sort sort) {
+        if (isIdAscending(sort)) {
+            return candidates;
+        }
+        return candidates.sorted(comparator(sort));
+    }
+
+    private static boolean isIdAscending(Sort sort) {
+        if (sort.isUnsorted()) {
+            return true;
+        }
+        List<Sort.Order> orders = sort.toList();
+        return orders.size() == 1 && orders.get(0).getProperty().equals(ID) && orders.get(0).isAscending();
+    }
+
+    private static Comparator<MovieInfo> comparator(Sort sort) {
+        Comparator<MovieInfo> comparator = (first, second) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<MovieInfo> byProperty = Comparator.comparing(
+                    movieInfo -> PropertyAccessorFactory.forBeanPropertyAccess(movieInfo).getPropertyValue(order.getProperty()),
+                    NULLS_FIRST);
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareValues(Object first, Object second) {
+        if (first instanceof Comparable<?> comparable) {
+            return ((Comparable<Object>) comparable).compareTo(second);
+        }
+        return String.valueOf(first).compareTo(String.valueOf(second));
+    }
+
+    private static MovieInfo project(MovieInfo movieInfo, Collection<String> fields) {
+        var projected = new MovieInfo();
+        projected.setId(movieInfo.getId());
+        BeanWrapper source = PropertyAccessorFactory.forBeanPropertyAccess(movieInfo);
+        BeanWrapper target = PropertyAccessorFactory.forBeanPropertyAccess(projected);
+        fields.forEach(field -> target.setPropertyValue(field, source.getPropertyValue(field)));
+        return projected;
+    }
+}
@@ -0,0 +1,99 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+public class InMemoryMovieSnapshots implements SmartLifecycle {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(InMemoryMovieSnapshots.class);
+
+    private InMemoryMovieStore store;
+
+    private ObjectMapper objectMapper;
+
+    private Path path;
+
+    private Duration interval;
+
+    private long snapshotModifications = -1;
+
+    private Disposable schedule;
+
+    public InMemoryMovieSnapshots(InMemoryMovieStore store, ObjectMapper objectMapper, Path path, Duration interval) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.path = path;
+        this.interval = interval;
+    }
+
+    public void restore() {
+        if (!Files.exists(path)) {
+            LOGGER.info("no movie info snapshot at {}, starting empty", path);
+            return;
+        }
+        try {
+            int restored = store.readSnapshot(path, objectMapper);
+            snapshotModifications = store.modifications();
+            LOGGER.info("restored {} movie info documents from {}", restored, path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not restore movie info snapshot from " + path, e);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        schedule = Flux.interval(interval, Schedulers.boundedElastic())
+                .concatMap(tick -> Mono.fromRunnable(this::snapshot)
+                        .onErrorResume(error -> {
+                            LOGGER.warn("could not write movie info snapshot to {}: {}", path, error.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+            schedule = null;
+            snapshot();
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return schedule != null;
+    }
+
+    @Override
+    public int getPhase() {
+        // stop after the web server so the final snapshot includes every acknowledged write
+        return Integer.MIN_VALUE;
+    }
+
+    synchronized void snapshot() {
+        long modifications = store.modifications();
+        if (modifications == snapshotModifications) {
+            return;
+        }
+        try {
+            store.writeSnapshot(path, objectMapper);
+            snapshotModifications = modifications;
+            LOGGER.debug("wrote movie info snapshot to {}", path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not write movie info snapshot to " + path, e);
+        }
+    }
+}
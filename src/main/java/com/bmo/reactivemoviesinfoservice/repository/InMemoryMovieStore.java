@@ -0,0 +1,298 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class InMemoryMovieStore {
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final ConcurrentNavigableMap<String, MovieInfo> byId = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentMap<Integer, NavigableSet<String>> byYear = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, NavigableSet<String>> byName = new ConcurrentHashMap<>();
+
+    private final NavigableSet<String> byNameKey = new ConcurrentSkipListSet<>();
+
+    private final NavigableSet<String> byCastKey = new ConcurrentSkipListSet<>();
+
+    private final Object[] locks;
+
+    private final AtomicLong modifications = new AtomicLong();
+
+    public InMemoryMovieStore(int lockStripes) {
+        this.locks = new Object[Math.max(lockStripes, 1)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public MovieInfo get(String id) {
+        return copy(byId.get(id));
+    }
+
+    public boolean contains(String id) {
+        return byId.containsKey(id);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public long modifications() {
+        return modifications.get();
+    }
+
+    public Stream<MovieInfo> all(String afterId) {
+        var documents = afterId == null ? byId.values() : byId.tailMap(afterId, false).values();
+        return documents.stream().map(InMemoryMovieStore::copy);
+    }
+
+    public Stream<MovieInfo> byYear(int year, String afterId) {
+        NavigableSet<String> ids = byYear.get(year);
+        if (ids == null) {
+            return Stream.empty();
+        }
+        return resolve(afterId == null ? ids : ids.tailSet(afterId, false))
+                .filter(movieInfo -> Objects.equals(movieInfo.getYear(), year));
+    }
+
+    public Stream<MovieInfo> byName(String name) {
+        NavigableSet<String> ids = byName.get(name);
+        if (ids == null) {
+            return Stream.empty();
+        }
+        return resolve(ids).filter(movieInfo -> Objects.equals(movieInfo.getName(), name));
+    }
+
+    public Stream<MovieInfo> byNameKeyPrefix(String normalizedPrefix) {
+        return resolve(idsForPrefix(byNameKey, normalizedPrefix))
+                .filter(movieInfo -> SearchKeys.nameKeys(movieInfo.getName()).stream().anyMatch(key -> key.startsWith(normalizedPrefix)));
+    }
+
+    public Stream<MovieInfo> byCastKeyPrefix(String normalizedPrefix) {
+        return resolve(idsForPrefix(byCastKey, normalizedPrefix))
+                .filter(movieInfo -> SearchKeys.castKeys(movieInfo.getCast()).stream().anyMatch(key -> key.startsWith(normalizedPrefix)));
+    }
+
+    public Map<Integer, Long> countByYear() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        byYear.forEach((year, ids) -> {
+            if (!ids.isEmpty()) {
+                counts.put(year, (long) ids.size());
+            }
+        });
+        return counts;
+    }
+
+    public MovieInfo insert(MovieInfo movieInfo) {
+        if (movieInfo.getId() == null) {
+            movieInfo.setId(new ObjectId().toHexString());
+        }
+        if (movieInfo.getVersion() == null) {
+            movieInfo.setVersion(0L);
+        }
+        String id = movieInfo.getId();
+        synchronized (lockFor(id)) {
+            if (byId.containsKey(id)) {
+                throw new DuplicateKeyException("duplicate key error, dup key: { _id: \"" + id + "\" }");
+            }
+            replace(null, copy(movieInfo));
+        }
+        return copy(movieInfo);
+    }
+
+    public MovieInfo save(MovieInfo movieInfo) {
+        if (movieInfo.getVersion() == null) {
+            return insert(movieInfo);
+        }
+        String id = movieInfo.getId();
+        synchronized (lockFor(id)) {
+            MovieInfo stored = byId.get(id);
+            if (stored == null || !movieInfo.getVersion().equals(stored.getVersion())) {
+                throw new OptimisticLockingFailureException("cannot save movie info " + id + " with version " + movieInfo.getVersion());
+            }
+            movieInfo.setVersion(movieInfo.getVersion() + 1);
+            replace(stored, copy(movieInfo));
+        }
+        return copy(movieInfo);
+    }
+
+    public MovieInfo update(String id, Long expectedVersion, Consumer<MovieInfo> changes) {
+        synchronized (lockFor(id)) {
+            MovieInfo stored = byId.get(id);
+            if (stored == null || (expectedVersion != null && !expectedVersion.equals(stored.getVersion()))) {
+                return null;
+            }
+            MovieInfo updated = copy(stored);
+            changes.accept(updated);
+            if (Objects.equals(updated.getVersion(), stored.getVersion())) {
+                updated.setVersion(stored.getVersion() == null ? 1 : stored.getVersion() + 1);
+            }
+            replace(stored, updated);
+            return copy(updated);
+        }
+    }
+
+    public boolean remove(String id) {
+        synchronized (lockFor(id)) {
+            MovieInfo stored = byId.get(id);
+            if (stored == null) {
+                return false;
+            }
+            replace(stored, null);
+            return true;
+        }
+    }
+
+    public void clear() {
+        byId.keySet().forEach(this::remove);
+    }
+
+    // stored documents are replaced rather than mutated, so every line is a whole document even while writes continue
+    public void writeSnapshot(Path path, ObjectMapper objectMapper) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for (MovieInfo movieInfo : byId.values()) {
+                writer.write(objectMapper.writeValueAsString(movieInfo));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public int readSnapshot(Path path, ObjectMapper objectMapper) throws IOException {
+        int restored = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                MovieInfo movieInfo = objectMapper.readValue(line, MovieInfo.class);
+                synchronized (lockFor(movieInfo.getId())) {
+                    replace(byId.get(movieInfo.getId()), movieInfo);
+                }
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    private void replace(MovieInfo previous, MovieInfo current) {
+        if (previous != null) {
+            unindex(previous);
+        }
+        if (current != null) {
+            byId.put(current.getId(), current);
+            index(current);
+        } else if (previous != null) {
+            byId.remove(previous.getId());
+        }
+        modifications.incrementAndGet();
+    }
+
+    private void index(MovieInfo movieInfo) {
+        String id = movieInfo.getId();
+        if (movieInfo.getYear() != null) {
+            addTo(byYear, movieInfo.getYear(), id);
+        }
+        if (movieInfo.getName() != null) {
+            addTo(byName, movieInfo.getName(), id);
+        }
+        SearchKeys.nameKeys(movieInfo.getName()).forEach(key -> byNameKey.add(key + KEY_SEPARATOR + id));
+        SearchKeys.castKeys(movieInfo.getCast()).forEach(key -> byCastKey.add(key + KEY_SEPARATOR + id));
+    }
+
+    private void unindex(MovieInfo movieInfo) {
+        String id = movieInfo.getId();
+        if (movieInfo.getYear() != null) {
+            removeFrom(byYear, movieInfo.getYear(), id);
+        }
+        if (movieInfo.getName() != null) {
+            removeFrom(byName, movieInfo.getName(), id);
+        }
+        SearchKeys.nameKeys(movieInfo.getName()).forEach(key -> byNameKey.remove(key + KEY_SEPARATOR + id));
+        SearchKeys.castKeys(movieInfo.getCast()).forEach(key -> byCastKey.remove(key + KEY_SEPARATOR + id));
+    }
+
+    private static <K> void addTo(ConcurrentMap<K, NavigableSet<String>> index, K key, String id) {
+        index.compute(key, (ignored, ids) -> {
+            NavigableSet<String> target = ids == null ? new ConcurrentSkipListSet<>() : ids;
+            target.add(id);
+            return target;
+        });
+    }
+
+    private static <K> void removeFrom(ConcurrentMap<K, NavigableSet<String>> index, K key, String id) {
+        index.computeIfPresent(key, (ignored, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static Set<String> idsForPrefix(NavigableSet<String> keyIndex, String normalizedPrefix) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (String entry : keyIndex.subSet(normalizedPrefix, true, normalizedPrefix + Character.MAX_VALUE, false)) {
+            ids.add(entry.substring(entry.lastIndexOf(KEY_SEPARATOR) + 1));
+        }
+        return ids;
+    }
+
+    private Stream<MovieInfo> resolve(Collection<String> ids) {
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(InMemoryMovieStore::copy);
+    }
+
+    private Object lockFor(String id) {
+        return locks[Math.floorMod(id.hashCode(), locks.length)];
+    }
+
+    static MovieInfo copy(MovieInfo movieInfo) {
+        if (movieInfo == null) {
+            return null;
+        }
+        return MovieInfo.builder()
+                .id(movieInfo.getId())
+                .name(movieInfo.getName())
+                .year(movieInfo.getYear())
+                .cast(movieInfo.getCast() == null ? null : new ArrayList<>(movieInfo.getCast()))
+                .releaseDate(movieInfo.getReleaseDate())
+                .version(movieInfo.getVersion())
+                .build();
+    }
+}
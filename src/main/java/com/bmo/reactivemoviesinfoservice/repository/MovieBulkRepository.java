@@ -0,0 +1,15 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface MovieBulkRepository {
+    Mono<Map<Integer, String>> insertAllUnordered(List<MovieInfo> moviesInfo);
+
+    // completes with the ids whose stored version no longer matched, those updates were not applied
+    Mono<Set<String>> updateAllUnordered(List<VersionedUpdate> updates);
+}
@@ -0,0 +1,100 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class MovieBulkRepositoryImpl implements MovieBulkRepository {
+
+    private ReactiveMongoOperations mongoOperations;
+
+    public MovieBulkRepositoryImpl(ReactiveMongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public Mono<Map<Integer, String>> insertAllUnordered(final List<MovieInfo> moviesInfo) {
+        if (moviesInfo.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, MovieInfo.class)
+                .insert(moviesInfo)
+                .execute()
+                .map(bulkWriteResult -> Map.<Integer, String>of())
+                .onErrorResume(error -> findBulkWriteException(error) != null,
+                        error -> Mono.just(toFailuresByIndex(findBulkWriteException(error))));
+    }
+
+    @Override
+    public Mono<Set<String>> updateAllUnordered(final List<VersionedUpdate> updates) {
+        if (updates.isEmpty()) {
+            return Mono.just(Set.of());
+        }
+        var bulkOperations = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, MovieInfo.class);
+        updates.forEach(update -> {
+            MovieInfo movieInfo = update.movieInfo();
+            Criteria criteria = Criteria.where("id").is(movieInfo.getId());
+            if (update.expectedVersion() != null) {
+                criteria.and("version").is(update.expectedVersion());
+            }
+            bulkOperations.updateOne(Query.query(criteria),
+                    new Update()
+                            .set("name", movieInfo.getName())
+                            .set(SearchKeys.NAME_KEYS, SearchKeys.nameKeys(movieInfo.getName()))
+                            .set("year", movieInfo.getYear())
+                            .set("cast", movieInfo.getCast())
+                            .set(SearchKeys.CAST_KEYS, SearchKeys.castKeys(movieInfo.getCast()))
+                            .set("releaseDate", movieInfo.getReleaseDate())
+                            .set("version", movieInfo.getVersion()));
+        });
+        return bulkOperations.execute()
+                .flatMap(result -> result.getMatchedCount() == updates.size() ? Mono.just(Set.<String>of()) : findConflicts(updates));
+    }
+
+    // a bulk result only counts matches, so look up which documents do not hold the content that was written
+    private Mono<Set<String>> findConflicts(final List<VersionedUpdate> updates) {
+        Map<String, MovieInfo> written = updates.stream()
+                .collect(Collectors.toMap(update -> update.movieInfo().getId(), VersionedUpdate::movieInfo, (first, second) -> second));
+        return mongoOperations.find(Query.query(Criteria.where("id").in(written.keySet())), MovieInfo.class)
+                .filter(stored -> sameContent(stored, written.get(stored.getId())))
+                .map(MovieInfo::getId)
+                .collect(Collectors.toSet())
+                .map(applied -> written.keySet().stream()
+                        .filter(id -> !applied.contains(id))
+                        .collect(Collectors.toSet()));
+    }
+
+    private static boolean sameContent(final MovieInfo stored, final MovieInfo written) {
+        return Objects.equals(stored.getVersion(), written.getVersion())
+                && Objects.equals(stored.getName(), written.getName())
+                && Objects.equals(stored.getYear(), written.getYear())
+                && Objects.equals(stored.getCast(), written.getCast())
+                && Objects.equals(stored.getReleaseDate(), written.getReleaseDate());
+    }
+
+    private static MongoBulkWriteException findBulkWriteException(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoBulkWriteException bulkWriteException) {
+                return bulkWriteException;
+            }
+        }
+        return null;
+    }
+
+    private static Map<Integer, String> toFailuresByIndex(MongoBulkWriteException bulkWriteException) {
+        return bulkWriteException.getWriteErrors().stream()
+                .collect(Collectors.toMap(BulkWriteError::getIndex, BulkWriteError::getMessage, (first, second) -> first));
+    }
+}
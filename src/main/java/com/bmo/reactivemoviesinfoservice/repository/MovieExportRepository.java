@@ -0,0 +1,8 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import reactor.core.publisher.Flux;
+
+public interface MovieExportRepository {
+    Flux<MovieInfo> exportAfter(String afterId, int batchSize);
+}
@@ -0,0 +1,29 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+public class MovieExportRepositoryImpl implements MovieExportRepository {
+
+    private ReactiveMongoOperations mongoOperations;
+
+    public MovieExportRepositoryImpl(ReactiveMongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public Flux<MovieInfo> exportAfter(final String afterId, final int batchSize) {
+        Query query = new Query()
+                .with(Sort.by("id"))
+                .cursorBatchSize(batchSize)
+                .noCursorTimeout();
+        if (afterId != null) {
+            query.addCriteria(IdCursor.after(afterId));
+        }
+        return mongoOperations.find(query, MovieInfo.class)
+                .limitRate(batchSize);
+    }
+}
@@ -0,0 +1,81 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.config.BackfillProperties;
+import com.bmo.reactivemoviesinfoservice.config.InMemoryRepositoryConfiguration;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Brings documents written before a field was introduced up to the current shape. Every step is idempotent, so each
+// replica can run it on startup.
+@Component
+@Profile("!" + InMemoryRepositoryConfiguration.PROFILE)
+public class MovieInfoBackfill {
+
+    private static final int BACKFILL_CONCURRENCY = 8;
+
+    private static Logger LOGGER = LoggerFactory.getLogger(MovieInfoBackfill.class);
+
+    private ReactiveMongoOperations mongoOperations;
+
+    private BackfillProperties properties;
+
+    public MovieInfoBackfill(ReactiveMongoOperations mongoOperations, BackfillProperties properties) {
+        this.mongoOperations = mongoOperations;
+        this.properties = properties;
+    }
+
+    public Mono<Long> backfillVersions() {
+        return mongoOperations.updateMulti(Query.query(Criteria.where("version").exists(false)), new Update().set("version", 0L), MovieInfo.class)
+                .map(UpdateResult::getModifiedCount);
+    }
+
+    // search only matches on the derived keys, so documents saved before they existed were invisible to it
+    public Mono<Long> backfillSearchKeys() {
+        Query missingKeys = Query.query(new Criteria().orOperator(
+                Criteria.where(SearchKeys.NAME_KEYS).exists(false),
+                Criteria.where(SearchKeys.CAST_KEYS).exists(false)));
+        missingKeys.fields().include("name").include("cast");
+        String collection = mongoOperations.getCollectionName(MovieInfo.class);
+        return mongoOperations.find(missingKeys, Document.class, collection)
+                .flatMap(document -> {
+                    String name = document.getString("name");
+                    List<String> cast = document.getList("cast", String.class);
+                    // only while the document still holds what the keys were derived from, a concurrent write sets its own
+                    Query unchanged = Query.query(Criteria.where("_id").is(document.get("_id"))
+                            .and("name").is(name)
+                            .and("cast").is(cast));
+                    return mongoOperations.updateFirst(unchanged, new Update()
+                                    .set(SearchKeys.NAME_KEYS, SearchKeys.nameKeys(name))
+                                    .set(SearchKeys.CAST_KEYS, SearchKeys.castKeys(cast)), collection)
+                            .map(UpdateResult::getModifiedCount);
+                }, BACKFILL_CONCURRENCY)
+                .reduce(0L, Long::sum);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!properties.isOnStartup()) {
+            return;
+        }
+        backfillVersions()
+                .subscribe(count -> LOGGER.info("backfilled version 0 on {} movie info documents", count),
+                        error -> LOGGER.warn("unable to backfill movie info versions: {}", error.getMessage()));
+        backfillSearchKeys()
+                .subscribe(count -> LOGGER.info("backfilled search keys on {} movie info documents", count),
+                        error -> LOGGER.warn("unable to backfill movie info search keys: {}", error.getMessage()));
+    }
+}
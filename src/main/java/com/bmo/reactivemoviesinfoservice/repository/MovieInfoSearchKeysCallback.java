@@ -0,0 +1,19 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import org.bson.Document;
+import org.reactivestreams.Publisher;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeSaveCallback;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Component
+public class MovieInfoSearchKeysCallback implements ReactiveBeforeSaveCallback<MovieInfo> {
+
+    @Override
+    public Publisher<MovieInfo> onBeforeSave(MovieInfo movieInfo, Document document, String collection) {
+        document.put(SearchKeys.NAME_KEYS, SearchKeys.nameKeys(movieInfo.getName()));
+        document.put(SearchKeys.CAST_KEYS, SearchKeys.castKeys(movieInfo.getCast()));
+        return Mono.just(movieInfo);
+    }
+}
@@ -0,0 +1,11 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+
+public interface MovieKeysetRepository {
+    Flux<MovieInfo> findByIdGreaterThan(String id, Pageable pageable);
+
+    Flux<MovieInfo> findByYearAndIdGreaterThan(int year, String id, Pageable pageable);
+}
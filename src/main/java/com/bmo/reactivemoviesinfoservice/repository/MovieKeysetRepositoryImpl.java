@@ -0,0 +1,26 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import reactor.core.publisher.Flux;
+
+// replaces the derived _id $gt queries, which skip every ObjectId once a page ends on a string id
+public class MovieKeysetRepositoryImpl implements MovieKeysetRepository {
+
+    private ReactiveMongoOperations mongoOperations;
+
+    public MovieKeysetRepositoryImpl(ReactiveMongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public Flux<MovieInfo> findByIdGreaterThan(final String id, final Pageable pageable) {
+        return mongoOperations.find(IdCursor.pageQuery(null, id, pageable), MovieInfo.class);
+    }
+
+    @Override
+    public Flux<MovieInfo> findByYearAndIdGreaterThan(final int year, final String id, final Pageable pageable) {
+        return mongoOperations.find(IdCursor.pageQuery(year, id, pageable), MovieInfo.class);
+    }
+}
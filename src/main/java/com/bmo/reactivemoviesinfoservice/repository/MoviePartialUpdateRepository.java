@@ -0,0 +1,10 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+public interface MoviePartialUpdateRepository {
+    Mono<MovieInfo> updateFields(String id, Map<String, Object> fields, Long expectedVersion);
+}
@@ -0,0 +1,14 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface MovieProjectionRepository {
+    Flux<MovieInfo> findPage(Integer year, String afterId, Pageable pageable, Collection<String> fields);
+
+    Mono<MovieInfo> findProjectedById(String id, Collection<String> fields);
+}
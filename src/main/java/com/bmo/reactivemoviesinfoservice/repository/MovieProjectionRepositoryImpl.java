@@ -0,0 +1,35 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public class MovieProjectionRepositoryImpl implements MovieProjectionRepository {
+
+    private ReactiveMongoOperations mongoOperations;
+
+    public MovieProjectionRepositoryImpl(ReactiveMongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public Flux<MovieInfo> findPage(final Integer year, final String afterId, final Pageable pageable,
+                                    final Collection<String> fields) {
+        Query query = IdCursor.pageQuery(year, afterId, pageable);
+        fields.forEach(field -> query.fields().include(field));
+        return mongoOperations.find(query, MovieInfo.class);
+    }
+
+    @Override
+    public Mono<MovieInfo> findProjectedById(final String id, final Collection<String> fields) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        fields.forEach(field -> query.fields().include(field));
+        return mongoOperations.findOne(query, MovieInfo.class);
+    }
+}
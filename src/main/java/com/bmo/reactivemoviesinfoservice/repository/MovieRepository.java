@@ -1,10 +1,20 @@
 package com.bmo.reactivemoviesinfoservice.repository;
 
 import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-public interface MovieRepository extends ReactiveMongoRepository<MovieInfo, String> {
+public interface MovieRepository extends ReactiveMongoRepository<MovieInfo, String>, MovieBulkRepository,
+        MoviePartialUpdateRepository, MovieProjectionRepository, MovieSearchRepository, MovieStatsRepository,
+        MovieExportRepository, MovieKeysetRepository {
     Flux<MovieInfo> findByYear(int year);
     Flux<MovieInfo> findByName(String name);
+
+    Flux<MovieInfo> findAllBy(Pageable pageable);
+    Flux<MovieInfo> findByYear(int year, Pageable pageable);
+
+    // deleteById with the number of removed documents, so callers can tell a delete from a miss
+    Mono<Long> removeById(String id);
 }
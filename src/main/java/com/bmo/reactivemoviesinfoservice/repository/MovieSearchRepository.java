@@ -0,0 +1,9 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import reactor.core.publisher.Flux;
+
+public interface MovieSearchRepository {
+    // name and cast matches ordered by SearchKeys.rank, then id, so every page is cut from one complete ranking
+    Flux<MovieInfo> searchRanked(String normalizedPrefix, int skip, int limit);
+}
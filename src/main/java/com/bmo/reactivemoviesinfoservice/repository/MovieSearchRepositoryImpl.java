@@ -0,0 +1,65 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+public class MovieSearchRepositoryImpl implements MovieSearchRepository {
+
+    private static final String RANK = "searchRank";
+
+    private ReactiveMongoOperations mongoOperations;
+
+    public MovieSearchRepositoryImpl(ReactiveMongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public Flux<MovieInfo> searchRanked(final String normalizedPrefix, final int skip, final int limit) {
+        String pattern = prefixPattern(normalizedPrefix);
+        Document nameKeys = new Document("$ifNull", List.of("$" + SearchKeys.NAME_KEYS, List.of()));
+        Document rank = new Document("$switch", new Document("branches", List.of(
+                new Document("case", regexMatch(new Document("$ifNull", List.of(new Document("$arrayElemAt", List.of(nameKeys, 0)), "")), pattern))
+                        .append("then", SearchKeys.NAME_PREFIX_RANK),
+                new Document("case", new Document("$anyElementTrue", List.of(
+                        new Document("$map", new Document("input", nameKeys).append("in", regexMatch("$$this", pattern))))))
+                        .append("then", SearchKeys.NAME_WORD_RANK)))
+                .append("default", SearchKeys.CAST_RANK));
+        // ranked and cut on the server, raw stages because the rank is not a MovieInfo property the mapper could check
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(new Criteria().orOperator(
+                        Criteria.where(SearchKeys.NAME_KEYS).regex(pattern),
+                        Criteria.where(SearchKeys.CAST_KEYS).regex(pattern))),
+                stage("$addFields", new Document(RANK, rank)),
+                stage("$sort", new Document(RANK, 1).append("_id", 1)),
+                stage("$skip", (long) skip),
+                stage("$limit", (long) limit),
+                stage("$unset", RANK));
+        return mongoOperations.aggregate(aggregation, mongoOperations.getCollectionName(MovieInfo.class), MovieInfo.class);
+    }
+
+    private static Document regexMatch(final Object input, final String pattern) {
+        return new Document("$regexMatch", new Document("input", input).append("regex", pattern));
+    }
+
+    private static AggregationOperation stage(final String operator, final Object body) {
+        return context -> new Document(operator, body);
+    }
+
+    static String prefixPattern(final String normalizedPrefix) {
+        var pattern = new StringBuilder(normalizedPrefix.length() + 8).append('^');
+        for (char c : normalizedPrefix.toCharArray()) {
+            if (!Character.isLetterOrDigit(c) && c != ' ') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.toString();
+    }
+}
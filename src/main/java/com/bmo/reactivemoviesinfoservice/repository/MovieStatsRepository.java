@@ -0,0 +1,8 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoStats;
+import reactor.core.publisher.Mono;
+
+public interface MovieStatsRepository {
+    Mono<MovieInfoStats> aggregateStats(int castLimit);
+}
@@ -0,0 +1,62 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoStats;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class MovieStatsRepositoryImpl implements MovieStatsRepository {
+
+    private static final String COUNT = "count";
+
+    private ReactiveMongoOperations mongoOperations;
+
+    public MovieStatsRepositoryImpl(ReactiveMongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public Mono<MovieInfoStats> aggregateStats(final int castLimit) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.facet(Aggregation.count().as(COUNT)).as("total")
+                        .and(Aggregation.match(Criteria.where("year").ne(null)),
+                                Aggregation.group("year").count().as(COUNT)).as("byYear")
+                        .and(Aggregation.unwind("cast"),
+                                Aggregation.group("cast").count().as(COUNT),
+                                Aggregation.sort(Sort.by(Sort.Order.desc(COUNT), Sort.Order.asc("_id"))),
+                                Aggregation.limit(castLimit)).as("byCast"))
+                // the cast facet unwinds and sorts the whole collection, past the 100MB in-memory stage limit
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        return mongoOperations.aggregate(aggregation, MovieInfo.class, Document.class)
+                .next()
+                .map(MovieStatsRepositoryImpl::toStats);
+    }
+
+    private static MovieInfoStats toStats(final Document facets) {
+        List<Document> total = facets.getList("total", Document.class);
+        Map<Integer, Long> byYear = new TreeMap<>();
+        for (Document year : facets.getList("byYear", Document.class)) {
+            byYear.put(((Number) year.get("_id")).intValue(), count(year));
+        }
+        Map<String, Long> byCast = new LinkedHashMap<>();
+        for (Document member : facets.getList("byCast", Document.class)) {
+            byCast.put(member.getString("_id"), count(member));
+        }
+        return new MovieInfoStats(total.isEmpty() ? 0 : count(total.get(0)), byYear, byCast, Instant.now());
+    }
+
+    private static long count(final Document document) {
+        return ((Number) document.get(COUNT)).longValue();
+    }
+}
@@ -0,0 +1,70 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class SearchKeys {
+
+    public static final String NAME_KEYS = "nameKeys";
+
+    public static final String CAST_KEYS = "castKeys";
+
+    // lower ranks sort first: a match on the start of the name, on a later word of it, then on a cast member
+    public static final int NAME_PREFIX_RANK = 0;
+
+    public static final int NAME_WORD_RANK = 1;
+
+    public static final int CAST_RANK = 2;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SearchKeys() {
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String withoutMarks = COMBINING_MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(withoutMarks.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+
+    public static List<String> nameKeys(String name) {
+        String normalized = normalize(name);
+        List<String> keys = new ArrayList<>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return keys;
+    }
+
+    public static List<String> castKeys(List<String> cast) {
+        if (cast == null) {
+            return List.of();
+        }
+        return cast.stream()
+                .map(SearchKeys::normalize)
+                .filter(member -> !member.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    public static int rank(MovieInfo movieInfo, String normalizedPrefix) {
+        List<String> keys = nameKeys(movieInfo.getName());
+        if (!keys.isEmpty() && keys.get(0).startsWith(normalizedPrefix)) {
+            return NAME_PREFIX_RANK;
+        }
+        return keys.stream().anyMatch(key -> key.startsWith(normalizedPrefix)) ? NAME_WORD_RANK : CAST_RANK;
+    }
+}
@@ -0,0 +1,8 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+
+// movieInfo carries the version to write, expectedVersion the stored version the change was computed from,
+// null applies it unconditionally like updateFields does
+public record VersionedUpdate(MovieInfo movieInfo, Long expectedVersion) {
+}
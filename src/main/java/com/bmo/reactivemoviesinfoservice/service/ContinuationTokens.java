@@ -0,0 +1,32 @@
+package com.bmo.reactivemoviesinfoservice.service;
+
+import com.bmo.reactivemoviesinfoservice.exception.InvalidPageRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+final class ContinuationTokens {
+
+    private static final String PREFIX = "v1:";
+
+    private ContinuationTokens() {
+    }
+
+    static String encode(final String lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decode(final String token) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("continuation token is malformed");
+        }
+        if (!decoded.startsWith(PREFIX) || decoded.length() == PREFIX.length()) {
+            throw new InvalidPageRequestException("continuation token is malformed");
+        }
+        return decoded.substring(PREFIX.length());
+    }
+}
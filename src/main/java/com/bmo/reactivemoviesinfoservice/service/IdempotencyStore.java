@@ -0,0 +1,67 @@
+package com.bmo.reactivemoviesinfoservice.service;
+
+import com.bmo.reactivemoviesinfoservice.config.IdempotencyProperties;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.exception.IdempotencyKeyReusedException;
+import com.bmo.reactivemoviesinfoservice.exception.InvalidIdempotencyKeyException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+@Component
+public class IdempotencyStore implements MeterBinder {
+
+    // keys are only unique per client, two clients choosing the same key must not see each other's results
+    private record ScopedKey(String scope, String key) {
+    }
+
+    // a copy of the request rather than a hash of it, so a collision cannot replay another request's result
+    private record Entry(MovieInfo request, MovieInfo movieInfo) {
+    }
+
+    private IdempotencyProperties properties;
+
+    private AsyncCache<ScopedKey, Entry> entries;
+
+    public IdempotencyStore(IdempotencyProperties properties) {
+        this.properties = properties;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Mono<MovieInfo> execute(final String scope, final String key, final MovieInfo request, final Supplier<Mono<MovieInfo>> action) {
+        return Mono.defer(() -> {
+            if (key.isBlank() || key.length() > properties.getMaxKeyLength()) {
+                return Mono.error(new InvalidIdempotencyKeyException(
+                        "Idempotency-Key must be between 1 and " + properties.getMaxKeyLength() + " characters"));
+            }
+            // copied before the action runs, creating may assign an id or version to the request object
+            MovieInfo fingerprint = request.toBuilder().build();
+            return Mono.fromFuture(() -> entries.get(new ScopedKey(scope, key), (k, executor) -> action.get()
+                            .map(movieInfo -> new Entry(fingerprint, movieInfo))
+                            .toFuture()), true)
+                    .map(entry -> {
+                        if (!entry.request().equals(fingerprint)) {
+                            throw new IdempotencyKeyReusedException(
+                                    "Idempotency-Key " + key + " was already used for a different request");
+                        }
+                        return entry.movieInfo();
+                    });
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(entries.synchronous(), "idempotencyKeys", Tags.empty()).bindTo(registry);
+    }
+}
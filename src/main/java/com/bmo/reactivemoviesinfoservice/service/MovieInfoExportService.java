@@ -0,0 +1,46 @@
+package com.bmo.reactivemoviesinfoservice.service;
+
+import com.bmo.reactivemoviesinfoservice.config.ExportProperties;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoExportItem;
+import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+public class MovieInfoExportService {
+
+    private MovieRepository repository;
+
+    private ExportProperties properties;
+
+    public MovieInfoExportService(MovieRepository repository, ExportProperties properties) {
+        this.repository = repository;
+        this.properties = properties;
+    }
+
+    public Flux<MovieInfoExportItem> export(final String checkpoint) {
+        return Flux.defer(() -> {
+            String afterId = checkpoint == null ? null : ContinuationTokens.decode(checkpoint);
+            AtomicReference<String> lastId = new AtomicReference<>(afterId);
+            int checkpointEvery = Math.max(properties.getCheckpointEvery(), 1);
+            return repository.exportAfter(afterId, properties.getBatchSize())
+                    .index()
+                    .concatMapIterable(indexed -> {
+                        MovieInfo movieInfo = indexed.getT2();
+                        lastId.set(movieInfo.getId());
+                        if ((indexed.getT1() + 1) % checkpointEvery != 0) {
+                            return List.of(MovieInfoExportItem.of(movieInfo));
+                        }
+                        return List.of(MovieInfoExportItem.of(movieInfo),
+                                MovieInfoExportItem.checkpoint(ContinuationTokens.encode(movieInfo.getId())));
+                    })
+                    .concatWith(Mono.fromSupplier(() -> MovieInfoExportItem.completed(
+                            lastId.get() == null ? null : ContinuationTokens.encode(lastId.get()))));
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package com.bmo.reactivemoviesinfoservice.service;
+
+import com.bmo.reactivemoviesinfoservice.config.SearchProperties;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.exception.InvalidPageRequestException;
+import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import com.bmo.reactivemoviesinfoservice.repository.SearchKeys;
+import com.bmo.reactivemoviesinfoservice.tracing.ReactiveTracer;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Service
+public class MovieInfoSearchService {
+
+    private MovieRepository repository;
+
+    private SearchProperties properties;
+
+    private ReactiveTracer tracer;
+
+    public MovieInfoSearchService(MovieRepository repository, SearchProperties properties, ReactiveTracer tracer) {
+        this.repository = repository;
+        this.properties = properties;
+        this.tracer = tracer;
+    }
+
+    public Mono<List<MovieInfo>> search(final String query, final Integer limit, final Integer offset) {
+        return tracer.trace("searchMoviesInfo", Mono.defer(() -> {
+            String prefix = SearchKeys.normalize(query);
+            if (prefix.isEmpty()) {
+                throw new InvalidPageRequestException("q must not be blank");
+            }
+            int pageSize = pageSize(limit);
+            int skip = offset(offset, pageSize);
+            return repository.searchRanked(prefix, skip, pageSize).collectList();
+        }));
+    }
+
+    private int pageSize(final Integer limit) {
+        if (limit == null) {
+            return Math.min(properties.getDefaultLimit(), properties.getMaxLimit());
+        }
+        if (limit < 1) {
+            throw new InvalidPageRequestException("limit must be a positive number");
+        }
+        return Math.min(limit, properties.getMaxLimit());
+    }
+
+    private int offset(final Integer offset, final int pageSize) {
+        if (offset == null) {
+            return 0;
+        }
+        if (offset < 0) {
+            throw new InvalidPageRequestException("offset must not be negative");
+        }
+        if (offset + pageSize > properties.getMaxResults()) {
+            throw new InvalidPageRequestException("search results are limited to the first " + properties.getMaxResults() + " matches");
+        }
+        return offset;
+    }
+}
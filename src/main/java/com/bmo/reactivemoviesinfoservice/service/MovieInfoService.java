@@ -1,54 +1,371 @@
 package com.bmo.reactivemoviesinfoservice.service;
 
+import com.bmo.reactivemoviesinfoservice.config.BulkProperties;
+import com.bmo.reactivemoviesinfoservice.config.MovieInfoCacheProperties;
+import com.bmo.reactivemoviesinfoservice.config.PaginationProperties;
+import com.bmo.reactivemoviesinfoservice.domain.BulkItemResult;
 import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoField;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoPage;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoPatch;
+import com.bmo.reactivemoviesinfoservice.exception.InvalidPageRequestException;
+import com.bmo.reactivemoviesinfoservice.exception.VersionConflictException;
 import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import com.bmo.reactivemoviesinfoservice.repository.SearchKeys;
+import com.bmo.reactivemoviesinfoservice.tracing.ReactiveTracer;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 @Service
-public class MovieInfoService {
+public class MovieInfoService implements MeterBinder {
+
+    private static final String SUMMARY_FIELDS = "summary";
 
     private MovieRepository repository;
 
-    public MovieInfoService(MovieRepository repository) {
+    private Validator validator;
+
+    private ReactiveTracer tracer;
+
+    private PaginationProperties paginationProperties;
+
+    private BulkProperties bulkProperties;
+
+    private MovieInfoWriteBehindBuffer writeBehind;
+
+    private AsyncCache<String, MovieInfo> movieInfoCache;
+
+    private AsyncCache<PageQuery, List<MovieInfo>> pageCache;
+
+    private record BulkItem(long index, MovieInfo movieInfo, List<String> errors) {
+    }
+
+    private record PageQuery(Integer year, String after, int pageSize) {
+    }
+
+    public MovieInfoService(MovieRepository repository, Validator validator, ReactiveTracer tracer, MovieInfoCacheProperties cacheProperties,
+                            PaginationProperties paginationProperties, BulkProperties bulkProperties,
+                            MovieInfoWriteBehindBuffer writeBehind) {
         this.repository = repository;
+        this.validator = validator;
+        this.tracer = tracer;
+        this.paginationProperties = paginationProperties;
+        this.bulkProperties = bulkProperties;
+        this.writeBehind = writeBehind;
+        this.movieInfoCache = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getMaximumSize())
+                .expireAfterWrite(cacheProperties.getTtl())
+                .recordStats()
+                .buildAsync();
+        this.pageCache = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getListMaximumSize())
+                .expireAfterWrite(cacheProperties.getListTtl())
+                .recordStats()
+                .buildAsync();
+        writeBehind.onFlushed(ids -> {
+            movieInfoCache.synchronous().invalidateAll(ids);
+            pageCache.synchronous().invalidateAll();
+        });
     }
 
     public Mono<MovieInfo> createMovieInfo(final MovieInfo movieInfo) {
-        return repository.save(movieInfo).log();
+        movieInfo.setVersion(null);
+        Mono<MovieInfo> created = repository.save(movieInfo);
+        if (movieInfo.getId() != null) {
+            // a client-supplied id of an existing document is overwritten, as before versioning, instead of failing the insert
+            String id = movieInfo.getId();
+            created = created.onErrorResume(DuplicateKeyException.class, e -> writeBehind.flush(id)
+                    .then(repository.updateFields(id, replacementFields(movieInfo), null)));
+        }
+        return tracer.trace("createMovieInfo", created
+                .doOnNext(this::refreshCache));
+    }
+
+    public Flux<BulkItemResult> bulkCreateMovieInfo(final Flux<MovieInfo> moviesInfo, final Consumer<MovieInfo> onAccepted) {
+        return moviesInfo.index()
+                .map(indexed -> new BulkItem(indexed.getT1(), indexed.getT2(), validate(indexed.getT2())))
+                .buffer(bulkProperties.getBatchSize())
+                .flatMapSequential(batch -> insertBatch(batch, onAccepted), bulkProperties.getConcurrency(), 1);
+    }
+
+    private List<String> validate(final MovieInfo movieInfo) {
+        return validator.validate(movieInfo).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .toList();
+    }
+
+    private Flux<BulkItemResult> insertBatch(final List<BulkItem> batch, final Consumer<MovieInfo> onAccepted) {
+        List<MovieInfo> validMoviesInfo = batch.stream()
+                .filter(item -> item.errors().isEmpty())
+                .map(BulkItem::movieInfo)
+                .toList();
+        validMoviesInfo.forEach(movieInfo -> {
+            if (movieInfo.getId() == null) {
+                movieInfo.setId(new ObjectId().toHexString());
+            }
+            movieInfo.setVersion(0L);
+        });
+        return repository.insertAllUnordered(validMoviesInfo)
+                .doOnNext(failuresByIndex -> pageCache.synchronous().invalidateAll())
+                .flatMapIterable(failuresByIndex -> toBulkItemResults(batch, failuresByIndex, onAccepted));
+    }
+
+    private static List<BulkItemResult> toBulkItemResults(final List<BulkItem> batch, final Map<Integer, String> failuresByIndex,
+                                                          final Consumer<MovieInfo> onAccepted) {
+        List<BulkItemResult> results = new ArrayList<>(batch.size());
+        int insertIndex = 0;
+        for (BulkItem item : batch) {
+            String id = item.movieInfo().getId();
+            if (!item.errors().isEmpty()) {
+                results.add(BulkItemResult.rejected(item.index(), id, item.errors()));
+                continue;
+            }
+            String failure = failuresByIndex.get(insertIndex++);
+            if (failure != null) {
+                results.add(BulkItemResult.rejected(item.index(), id, List.of(failure)));
+            } else {
+                onAccepted.accept(item.movieInfo());
+                results.add(BulkItemResult.accepted(item.index(), id));
+            }
+        }
+        return results;
+    }
+
+    public Mono<MovieInfoPage<MovieInfo>> getMoviesInfoPage(final Integer year, final String continuationToken, final Integer limit) {
+        return Mono.defer(() -> {
+            int pageSize = pageSize(limit);
+            var query = new PageQuery(year, decodeContinuationToken(continuationToken), pageSize);
+            return Mono.fromFuture(() -> pageCache.get(query, (key, executor) -> findPage(key).toFuture()), true)
+                    .map(page -> toMovieInfoPage(page, pageSize, Function.identity()));
+        });
+    }
+
+    private Mono<List<MovieInfo>> findPage(final PageQuery query) {
+        Pageable pageable = keysetPageable(query.pageSize());
+        Flux<MovieInfo> moviesInfo;
+        if (query.year() != null) {
+            moviesInfo = query.after() == null
+                    ? repository.findByYear(query.year(), pageable)
+                    : repository.findByYearAndIdGreaterThan(query.year(), query.after(), pageable);
+        } else {
+            moviesInfo = query.after() == null
+                    ? repository.findAllBy(pageable)
+                    : repository.findByIdGreaterThan(query.after(), pageable);
+        }
+        return moviesInfo.collectList();
+    }
+
+    public Mono<MovieInfoPage<Map<String, Object>>> getMoviesInfoFieldsPage(final Integer year, final String continuationToken,
+                                                                         final Integer limit, final String fields) {
+        return Mono.defer(() -> {
+            Set<MovieInfoField> selectedFields = parseFields(fields);
+            int pageSize = pageSize(limit);
+            List<String> properties = selectedFields.stream()
+                    .map(MovieInfoField::property)
+                    .toList();
+            return repository.findPage(year, decodeContinuationToken(continuationToken), keysetPageable(pageSize), properties)
+                    .collectList()
+                    .map(page -> toMovieInfoPage(page, pageSize, movieInfo -> toFieldMap(movieInfo, selectedFields)));
+        });
     }
 
-    public Flux<MovieInfo> getAllMoviesInfo() {
-        return repository.findAll().log();
+    private static Set<MovieInfoField> parseFields(final String fields) {
+        Set<MovieInfoField> selectedFields = EnumSet.noneOf(MovieInfoField.class);
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.equals(SUMMARY_FIELDS)) {
+                selectedFields.addAll(EnumSet.of(MovieInfoField.ID, MovieInfoField.NAME, MovieInfoField.YEAR));
+                continue;
+            }
+            MovieInfoField selected = Arrays.stream(MovieInfoField.values())
+                    .filter(candidate -> candidate.property().equals(name))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidPageRequestException("unknown field " + name));
+            selectedFields.add(selected);
+        }
+        return selectedFields;
+    }
+
+    private static Map<String, Object> toFieldMap(final MovieInfo movieInfo, final Set<MovieInfoField> selectedFields) {
+        Map<String, Object> fieldMap = new LinkedHashMap<>();
+        selectedFields.forEach(field -> fieldMap.put(field.property(), field.valueOf(movieInfo)));
+        return fieldMap;
     }
 
     public Mono<MovieInfo> getMovieInfoById(final String id) {
-        return repository.findById(id).log();
+        return tracer.trace("getMovieInfoById", current(id));
+    }
+
+    private Mono<MovieInfo> current(final String id) {
+        return Mono.justOrEmpty(writeBehind.pending(id))
+                .switchIfEmpty(Mono.fromFuture(() -> movieInfoCache.get(id, (key, executor) -> repository.findById(key).toFuture()), true));
+    }
+
+    public Mono<Long> getMovieInfoVersion(final String id) {
+        MovieInfo pending = writeBehind.pending(id);
+        if (pending != null) {
+            return Mono.justOrEmpty(pending.getVersion());
+        }
+        // not from movieInfoCache, a strong validator must not outlive a write made through another replica
+        return repository.findProjectedById(id, List.of(MovieInfoField.VERSION.property()))
+                .mapNotNull(MovieInfo::getVersion);
     }
 
     public Mono<MovieInfo> updateMovieInfo(final String id, final MovieInfo updatedMovieInfo) {
+        if (writeBehind.isEnabled()) {
+            // the base comes from the cache, writes through another replica evict it via the change stream, and one
+            // that lands in between makes the flush drop this update and report it through onWriteConflict
+            return current(id)
+                    .flatMap(current -> writeBehind.submit(current, updatedMovieInfo))
+                    .doOnNext(movieInfo -> pageCache.synchronous().invalidateAll());
+        }
+        // an update in place rather than save(), documents written before versioning have no version and would be inserted
         return repository.findById(id)
-                .flatMap(updateMovieInfoMonoFunction(updatedMovieInfo));
+                .flatMap(current -> repository.updateFields(id, replacementFields(updatedMovieInfo), current.getVersion())
+                        .switchIfEmpty(Mono.error(() -> new OptimisticLockingFailureException("movie info " + id + " was modified concurrently"))))
+                .doOnNext(this::refreshCache);
+    }
+
+    private static Map<String, Object> replacementFields(final MovieInfo movieInfo) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("name", movieInfo.getName());
+        fields.put(SearchKeys.NAME_KEYS, SearchKeys.nameKeys(movieInfo.getName()));
+        fields.put("year", movieInfo.getYear());
+        fields.put("cast", movieInfo.getCast());
+        fields.put(SearchKeys.CAST_KEYS, SearchKeys.castKeys(movieInfo.getCast()));
+        fields.put("releaseDate", movieInfo.getReleaseDate());
+        return fields;
+    }
+
+    public Mono<MovieInfo> patchMovieInfo(final String id, final MovieInfoPatch patch, final Long expectedVersion) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (patch.name() != null) {
+            fields.put("name", patch.name());
+            fields.put(SearchKeys.NAME_KEYS, SearchKeys.nameKeys(patch.name()));
+        }
+        if (patch.year() != null) {
+            fields.put("year", patch.year());
+        }
+        if (patch.cast() != null) {
+            fields.put("cast", patch.cast());
+            fields.put(SearchKeys.CAST_KEYS, SearchKeys.castKeys(patch.cast()));
+        }
+        if (patch.releaseDate() != null) {
+            fields.put("releaseDate", patch.releaseDate());
+        }
+        if (fields.isEmpty()) {
+            // nothing to change, answer with the stored document instead of bumping its version
+            return writeBehind.flush(id)
+                    .then(repository.findById(id))
+                    .flatMap(current -> expectedVersion == null || expectedVersion.equals(current.getVersion())
+                            ? Mono.just(current)
+                            : Mono.error(new VersionConflictException("movie info " + id + " does not match version " + expectedVersion)))
+                    .doOnNext(this::refreshCache);
+        }
+        return writeBehind.flush(id)
+                .then(repository.updateFields(id, fields, expectedVersion))
+                .switchIfEmpty(Mono.defer(() -> versionConflictIfExists(id, expectedVersion)))
+                .doOnNext(this::refreshCache);
+    }
+
+    private Mono<MovieInfo> versionConflictIfExists(final String id, final Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.empty();
+        }
+        return repository.existsById(id)
+                .filter(Boolean::booleanValue)
+                .flatMap(exists -> Mono.error(new VersionConflictException("movie info " + id + " does not match version " + expectedVersion)));
+    }
+
+    public Mono<Boolean> deleteMovieInfo(String id) {
+        return Mono.fromRunnable(() -> writeBehind.discard(id))
+                .then(repository.removeById(id))
+                .map(deleted -> deleted > 0)
+                .doFinally(signalType -> {
+                    movieInfoCache.synchronous().invalidate(id);
+                    pageCache.synchronous().invalidateAll();
+                });
+    }
+
+    public void onWriteConflict(final Consumer<MovieInfo> listener) {
+        writeBehind.onConflict(listener);
+    }
+
+    public void evict(final String id) {
+        movieInfoCache.synchronous().invalidate(id);
+        pageCache.synchronous().invalidateAll();
+    }
+
+    public void invalidateCache() {
+        movieInfoCache.synchronous().invalidateAll();
+        pageCache.synchronous().invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(movieInfoCache.synchronous(), "movieInfoById", Tags.empty()).bindTo(registry);
+        new CaffeineCacheMetrics<>(pageCache.synchronous(), "movieInfoPages", Tags.empty()).bindTo(registry);
+    }
+
+    private int pageSize(final Integer limit) {
+        if (limit == null) {
+            return Math.min(paginationProperties.getDefaultLimit(), paginationProperties.getMaxLimit());
+        }
+        if (limit < 1) {
+            throw new InvalidPageRequestException("limit must be a positive number");
+        }
+        return Math.min(limit, paginationProperties.getMaxLimit());
+    }
+
+    private static Pageable keysetPageable(final int pageSize) {
+        return PageRequest.of(0, pageSize + 1, Sort.by("id"));
     }
 
-    private Function<MovieInfo, Mono<MovieInfo>> updateMovieInfoMonoFunction(final MovieInfo updatedMovieInfo) {
-        return movieInfoResp -> {
-            movieInfoResp.setName(updatedMovieInfo.getName());
-            movieInfoResp.setYear(updatedMovieInfo.getYear());
-            movieInfoResp.setCast(updatedMovieInfo.getCast());
-            movieInfoResp.setReleaseDate(updatedMovieInfo.getReleaseDate());
-            return repository.save(movieInfoResp);
-        };
+    private static String decodeContinuationToken(final String continuationToken) {
+        return continuationToken == null ? null : ContinuationTokens.decode(continuationToken);
     }
 
-    public Mono<Void> deleteMovieInfo(String id) {
-        return repository.deleteById(id);
+    private static <T> MovieInfoPage<T> toMovieInfoPage(final List<MovieInfo> moviesInfo, final int pageSize,
+                                                        final Function<MovieInfo, T> mapper) {
+        if (moviesInfo.size() <= pageSize) {
+            return new MovieInfoPage<>(moviesInfo.stream().map(mapper).toList(), null);
+        }
+        List<MovieInfo> items = moviesInfo.subList(0, pageSize);
+        return new MovieInfoPage<>(items.stream().map(mapper).toList(),
+                ContinuationTokens.encode(items.get(pageSize - 1).getId()));
     }
 
-    public Flux<MovieInfo> getMoviesByYear(final Integer year) {
-        return repository.findByYear(year);
+    private void refreshCache(final MovieInfo movieInfo) {
+        if (movieInfo.getId() != null) {
+            movieInfoCache.put(movieInfo.getId(), CompletableFuture.completedFuture(movieInfo));
+        }
+        pageCache.synchronous().invalidateAll();
     }
 }
@@ -0,0 +1,44 @@
+package com.bmo.reactivemoviesinfoservice.service;
+
+import com.bmo.reactivemoviesinfoservice.config.StatsProperties;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoStats;
+import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+public class MovieInfoStatsService {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(MovieInfoStatsService.class);
+
+    // stale snapshots are only kept for the failure backoff, so the next request after it retries the aggregation
+    private record Snapshot(MovieInfoStats stats, boolean stale) {
+    }
+
+    private AtomicReference<MovieInfoStats> lastGood = new AtomicReference<>();
+
+    private Mono<MovieInfoStats> stats;
+
+    public MovieInfoStatsService(MovieRepository repository, StatsProperties properties) {
+        this.stats = Mono.defer(() -> repository.aggregateStats(properties.getCastLimit()))
+                .doOnNext(lastGood::set)
+                .map(computed -> new Snapshot(computed, false))
+                .onErrorResume(error -> {
+                    LOGGER.warn("stats refresh failed, retrying in {}: {}", properties.getFailureBackoff(), error.getMessage());
+                    MovieInfoStats last = lastGood.get();
+                    return last == null ? Mono.error(error) : Mono.just(new Snapshot(last, true));
+                })
+                .cache(snapshot -> snapshot.stale() ? properties.getFailureBackoff() : properties.getRefreshInterval(),
+                        error -> properties.getFailureBackoff(), () -> Duration.ZERO)
+                .map(Snapshot::stats);
+    }
+
+    public Mono<MovieInfoStats> getStats() {
+        return stats;
+    }
+}
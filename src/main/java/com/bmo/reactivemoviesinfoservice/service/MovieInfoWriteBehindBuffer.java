@@ -0,0 +1,282 @@
+package com.bmo.reactivemoviesinfoservice.service;
+
+import com.bmo.reactivemoviesinfoservice.config.WriteBehindProperties;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.exception.ServiceOverloadedException;
+import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import com.bmo.reactivemoviesinfoservice.repository.VersionedUpdate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+@Component
+public class MovieInfoWriteBehindBuffer implements SmartLifecycle, MeterBinder {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(MovieInfoWriteBehindBuffer.class);
+
+    private MovieRepository repository;
+
+    private WriteBehindProperties properties;
+
+    private ObjectMapper objectMapper;
+
+    private final Map<String, WriteBehindJournal.Entry> pending = new ConcurrentHashMap<>();
+
+    private final List<Consumer<Collection<String>>> flushListeners = new CopyOnWriteArrayList<>();
+
+    private final List<Consumer<MovieInfo>> conflictListeners = new CopyOnWriteArrayList<>();
+
+    private final Sinks.Many<Boolean> flushRequests = Sinks.many().multicast().directBestEffort();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder flushed = new LongAdder();
+
+    private final LongAdder flushFailures = new LongAdder();
+
+    private final LongAdder conflicts = new LongAdder();
+
+    private WriteBehindJournal journal;
+
+    private Disposable flushLoop;
+
+    public MovieInfoWriteBehindBuffer(MovieRepository repository, WriteBehindProperties properties, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public MovieInfo pending(final String id) {
+        WriteBehindJournal.Entry entry = pending.get(id);
+        return entry == null ? null : entry.movieInfo().toBuilder().build();
+    }
+
+    public void onFlushed(final Consumer<Collection<String>> listener) {
+        flushListeners.add(listener);
+    }
+
+    // called with each acknowledged update dropped at flush, carrying the id and version its client was given
+    public void onConflict(final Consumer<MovieInfo> listener) {
+        conflictListeners.add(listener);
+    }
+
+    public Mono<MovieInfo> submit(final MovieInfo current, final MovieInfo changes) {
+        return Mono.fromCallable(() -> {
+                    String id = current.getId();
+                    if (!pending.containsKey(id) && pending.size() >= properties.getMaxPending()) {
+                        flushRequests.tryEmitNext(Boolean.TRUE);
+                        throw new ServiceOverloadedException("write-behind buffer is full, retry later");
+                    }
+                    WriteBehindJournal.Entry[] previous = new WriteBehindJournal.Entry[1];
+                    WriteBehindJournal.Entry entry = pending.compute(id, (key, existing) -> {
+                        previous[0] = existing;
+                        MovieInfo base = existing == null ? current : existing.movieInfo();
+                        return new WriteBehindJournal.Entry(sequence.incrementAndGet(), base.toBuilder()
+                                .name(changes.getName())
+                                .year(changes.getYear())
+                                .cast(changes.getCast())
+                                .releaseDate(changes.getReleaseDate())
+                                .version(base.getVersion() == null ? 0 : base.getVersion() + 1)
+                                .build(),
+                                existing == null ? current.getVersion() : existing.baseVersion());
+                    });
+                    if (previous[0] != null) {
+                        coalesced.increment();
+                    }
+                    try {
+                        journal.append(entry);
+                    } catch (IOException e) {
+                        if (previous[0] == null) {
+                            pending.remove(id, entry);
+                        } else {
+                            pending.replace(id, entry, previous[0]);
+                        }
+                        throw new UncheckedIOException("could not journal update for movie info " + id, e);
+                    }
+                    if (pending.size() >= properties.getMaxBatchSize()) {
+                        flushRequests.tryEmitNext(Boolean.TRUE);
+                    }
+                    return entry.movieInfo().toBuilder().build();
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Void> flush(final String id) {
+        return Mono.defer(() -> {
+            WriteBehindJournal.Entry entry = pending.get(id);
+            return entry == null ? Mono.empty() : write(List.of(entry));
+        });
+    }
+
+    public void discard(final String id) {
+        pending.remove(id);
+    }
+
+    public Mono<Void> flushAll() {
+        return flushBatch().repeat(() -> !pending.isEmpty()).then();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            journal = new WriteBehindJournal(properties.getJournalPath(), objectMapper);
+            for (WriteBehindJournal.Entry entry : journal.replay()) {
+                pending.merge(entry.movieInfo().getId(), entry,
+                        (existing, replayed) -> replayed.sequence() > existing.sequence() ? replayed : existing);
+                sequence.accumulateAndGet(entry.sequence(), Math::max);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not open write-behind journal " + properties.getJournalPath(), e);
+        }
+        if (!pending.isEmpty()) {
+            LOGGER.info("replaying {} unflushed movie info updates from {}", pending.size(), properties.getJournalPath());
+        }
+        flushLoop = Flux.merge(Flux.interval(properties.getFlushInterval()).map(tick -> Boolean.TRUE), flushRequests.asFlux())
+                .onBackpressureDrop()
+                .concatMap(request -> flushBatch().onErrorResume(error -> {
+                    flushFailures.increment();
+                    LOGGER.warn("write-behind flush failed, keeping {} updates pending: {}", pending.size(), error.getMessage());
+                    return Mono.empty();
+                }), 1)
+                .subscribe();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (flushLoop == null) {
+            return;
+        }
+        flushLoop.dispose();
+        flushLoop = null;
+        try {
+            flushAll().block(properties.getShutdownFlushTimeout());
+        } catch (RuntimeException e) {
+            LOGGER.error("could not flush {} movie info updates on shutdown, they stay in {}", pending.size(), properties.getJournalPath(), e);
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            LOGGER.warn("could not close write-behind journal: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return flushLoop != null;
+    }
+
+    @Override
+    public int getPhase() {
+        // stop after the web server has drained requests, and before the in-memory repository writes its last snapshot
+        return Integer.MIN_VALUE + 1;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("movies.info.write.behind.pending", pending, Map::size)
+                .description("Acknowledged movie info updates waiting to be flushed")
+                .register(registry);
+        FunctionCounter.builder("movies.info.write.behind.coalesced", coalesced, LongAdder::sum)
+                .description("Updates merged into an update for the same id that was still pending")
+                .register(registry);
+        FunctionCounter.builder("movies.info.write.behind.flushed", flushed, LongAdder::sum)
+                .description("Movie info updates written to the repository by a bulk flush")
+                .register(registry);
+        FunctionCounter.builder("movies.info.write.behind.flush.failures", flushFailures, LongAdder::sum)
+                .description("Bulk flushes that failed and were retried")
+                .register(registry);
+        FunctionCounter.builder("movies.info.write.behind.conflicts", conflicts, LongAdder::sum)
+                .description("Acknowledged updates dropped at flush because the document was changed by another write")
+                .register(registry);
+    }
+
+    private Mono<Void> flushBatch() {
+        return Mono.defer(() -> {
+            List<WriteBehindJournal.Entry> batch = pending.values().stream()
+                    .limit(properties.getMaxBatchSize())
+                    .toList();
+            return batch.isEmpty() ? Mono.empty() : write(batch);
+        });
+    }
+
+    private Mono<Void> write(final List<WriteBehindJournal.Entry> batch) {
+        List<VersionedUpdate> updates = batch.stream()
+                .map(entry -> new VersionedUpdate(entry.movieInfo(), entry.baseVersion()))
+                .toList();
+        return repository.updateAllUnordered(updates)
+                .flatMap(conflictingIds -> Mono.fromRunnable(() -> {
+                    List<String> ids = batch.stream().map(entry -> entry.movieInfo().getId()).toList();
+                    for (WriteBehindJournal.Entry entry : batch) {
+                        String id = entry.movieInfo().getId();
+                        boolean removed = pending.remove(id, entry);
+                        if (conflictingIds.contains(id)) {
+                            MovieInfo dropped = entry.movieInfo().toBuilder().build();
+                            conflictListeners.forEach(listener -> listener.accept(dropped));
+                        } else if (!removed) {
+                            rebase(entry);
+                        }
+                    }
+                    flushed.add(batch.size() - conflictingIds.size());
+                    if (!conflictingIds.isEmpty()) {
+                        conflicts.add(conflictingIds.size());
+                        LOGGER.warn("dropped buffered updates for movie info {}, they were changed by another write since", conflictingIds);
+                    }
+                    flushListeners.forEach(listener -> listener.accept(ids));
+                    try {
+                        journal.compact(pending::values);
+                    } catch (IOException e) {
+                        LOGGER.warn("could not compact write-behind journal: {}", e.getMessage());
+                    }
+                }).subscribeOn(Schedulers.boundedElastic()))
+                .then();
+    }
+
+    // an update coalesced while its predecessor was being flushed now builds on the version that flush wrote
+    private void rebase(final WriteBehindJournal.Entry flushedEntry) {
+        String id = flushedEntry.movieInfo().getId();
+        WriteBehindJournal.Entry rebased = pending.computeIfPresent(id, (key, newer) ->
+                newer.sequence() > flushedEntry.sequence() && Objects.equals(newer.baseVersion(), flushedEntry.baseVersion())
+                        ? new WriteBehindJournal.Entry(sequence.incrementAndGet(), newer.movieInfo(), flushedEntry.movieInfo().getVersion())
+                        : newer);
+        if (rebased == null || !Objects.equals(rebased.baseVersion(), flushedEntry.movieInfo().getVersion())) {
+            return;
+        }
+        try {
+            journal.append(rebased);
+        } catch (IOException e) {
+            LOGGER.warn("could not journal rebased update for movie info {}: {}", id, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.bmo.reactivemoviesinfoservice.service;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+class WriteBehindJournal implements Closeable {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(WriteBehindJournal.class);
+
+    // baseVersion is the stored version the buffered content was computed from, the flush only applies on top of it
+    record Entry(long sequence, MovieInfo movieInfo, Long baseVersion) {
+    }
+
+    private final Path path;
+
+    private FileChannel channel;
+
+    private final ObjectMapper objectMapper;
+
+    private final Object writeLock = new Object();
+
+    private final Object syncLock = new Object();
+
+    private long writtenPosition;
+
+    // lines in the file, live or superseded, compared with the live entries to decide when a rewrite pays off
+    private long writtenEntries;
+
+    private volatile long syncedPosition;
+
+    WriteBehindJournal(Path path, ObjectMapper objectMapper) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.objectMapper = objectMapper;
+        this.writtenPosition = channel.size();
+        this.syncedPosition = writtenPosition;
+    }
+
+    List<Entry> replay() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        synchronized (writeLock) {
+            channel.position(0);
+            var reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                writtenEntries++;
+                try {
+                    entries.add(objectMapper.readValue(line, Entry.class));
+                } catch (JsonProcessingException e) {
+                    LOGGER.warn("skipping unreadable write-behind journal entry, most likely torn by a crash: {}", e.getOriginalMessage());
+                }
+            }
+        }
+        return entries;
+    }
+
+    // writes are ordered under writeLock, the fsync is shared by every append that lands before it starts
+    void append(Entry entry) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap((objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8));
+        long end;
+        synchronized (writeLock) {
+            long position = writtenPosition;
+            while (line.hasRemaining()) {
+                position += channel.write(line, position);
+            }
+            writtenPosition = position;
+            writtenEntries++;
+            end = position;
+        }
+        sync(end);
+    }
+
+    // rewrites the journal from the entries still pending once most of its lines were flushed, appends wait for the swap
+    void compact(Supplier<Collection<Entry>> live) throws IOException {
+        synchronized (syncLock) {
+            synchronized (writeLock) {
+                Collection<Entry> entries = live.get();
+                if (writtenEntries == 0 || writtenEntries < 2L * entries.size()) {
+                    return;
+                }
+                Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+                long position = 0;
+                try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    for (Entry entry : entries) {
+                        ByteBuffer line = ByteBuffer.wrap((objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8));
+                        while (line.hasRemaining()) {
+                            position += target.write(line, position);
+                        }
+                    }
+                    target.force(false);
+                }
+                Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                FileChannel previous = channel;
+                channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                previous.close();
+                writtenPosition = position;
+                writtenEntries = entries.size();
+                syncedPosition = position;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            channel.close();
+        }
+    }
+
+    private void sync(long end) throws IOException {
+        if (syncedPosition >= end) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedPosition >= end) {
+                return;
+            }
+            long target;
+            FileChannel current;
+            synchronized (writeLock) {
+                target = writtenPosition;
+                current = channel;
+            }
+            current.force(false);
+            syncedPosition = target;
+        }
+    }
+}
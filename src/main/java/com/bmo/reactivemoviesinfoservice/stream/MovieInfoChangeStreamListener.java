@@ -0,0 +1,217 @@
+package com.bmo.reactivemoviesinfoservice.stream;
+
+import com.bmo.reactivemoviesinfoservice.config.ChangeStreamProperties;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoEventType;
+import com.bmo.reactivemoviesinfoservice.service.MovieInfoService;
+import com.mongodb.MongoException;
+import com.mongodb.client.model.changestream.FullDocument;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+@ConditionalOnProperty(name = "movies-info.stream.source", havingValue = "change-stream")
+public class MovieInfoChangeStreamListener implements SmartLifecycle {
+
+    private static final String TOKEN_FIELD = "token";
+
+    // ChangeStreamHistoryLost, and ChangeStreamFatalError which older servers raise for a token no longer in the oplog
+    private static final Set<Integer> HISTORY_LOST_CODES = Set.of(286, 280);
+
+    private static final Duration FINAL_CHECKPOINT_TIMEOUT = Duration.ofSeconds(5);
+
+    private static Logger LOGGER = LoggerFactory.getLogger(MovieInfoChangeStreamListener.class);
+
+    private ReactiveMongoOperations mongoOperations;
+
+    private MovieInfoStreamBuffer streamBuffer;
+
+    private MovieInfoService service;
+
+    private ChangeStreamProperties properties;
+
+    private final AtomicReference<BsonDocument> lastResumeToken = new AtomicReference<>();
+
+    // written by the checkpoint subscription, read by the next checkpoint and by stop()
+    private volatile BsonDocument lastCheckpointedToken;
+
+    // set once the server reported the persisted position as gone, the stream then restarts from now
+    private volatile boolean historyLost;
+
+    private Disposable.Composite subscriptions;
+
+    public MovieInfoChangeStreamListener(ReactiveMongoOperations mongoOperations, MovieInfoStreamBuffer streamBuffer,
+                                         MovieInfoService service, ChangeStreamProperties properties) {
+        if (properties.getNodeId() == null || properties.getNodeId().isBlank()) {
+            throw new IllegalStateException("movies-info.change-stream.node-id must be set to a stable id unique to this replica "
+                    + "when movies-info.stream.source=change-stream, replicas sharing one would overwrite each other's resume token");
+        }
+        this.mongoOperations = mongoOperations;
+        this.streamBuffer = streamBuffer;
+        this.service = service;
+        this.properties = properties;
+    }
+
+    @Override
+    public synchronized void start() {
+        subscriptions = Disposables.composite(
+                Flux.defer(this::watch)
+                        .retryWhen(Retry.backoff(Long.MAX_VALUE, properties.getRetryBackoff())
+                                .maxBackoff(properties.getMaxRetryBackoff())
+                                .doBeforeRetry(signal -> LOGGER.warn("movie info change stream failed, resuming: {}",
+                                        signal.failure().getMessage())))
+                        .subscribe(this::publish),
+                Flux.interval(properties.getCheckpointInterval())
+                        .concatMap(tick -> checkpoint().onErrorResume(error -> {
+                            LOGGER.warn("could not persist change stream resume token: {}", error.getMessage());
+                            return Mono.empty();
+                        }))
+                        .subscribe());
+        LOGGER.info("tailing movie info change stream as node {}", properties.getNodeId());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (subscriptions != null) {
+            subscriptions.dispose();
+            subscriptions = null;
+            checkpoint().block(FINAL_CHECKPOINT_TIMEOUT);
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return subscriptions != null;
+    }
+
+    private Flux<ChangeStreamEvent<MovieInfo>> watch() {
+        return Mono.justOrEmpty(lastResumeToken.get())
+                .switchIfEmpty(Mono.defer(() -> historyLost ? Mono.empty() : loadResumeToken()))
+                .map(resumeToken -> changeStreamOptions().resumeAfter(resumeToken))
+                .defaultIfEmpty(changeStreamOptions())
+                .flatMapMany(options -> mongoOperations.changeStream(mongoOperations.getCollectionName(MovieInfo.class),
+                        options.build(), MovieInfo.class))
+                .onErrorResume(MovieInfoChangeStreamListener::isHistoryLost, error -> restartFromNow().then(Mono.error(error)));
+    }
+
+    // resuming from the same token would fail forever, so the retry starts from now and subscribers learn what they missed;
+    // the persisted token goes too, a restart before the next checkpoint would otherwise try it again
+    private Mono<Void> restartFromNow() {
+        LOGGER.error("movie info change stream history lost, restarting from the current time; events since the last resume token are missed");
+        historyLost = true;
+        lastResumeToken.set(null);
+        lastCheckpointedToken = null;
+        service.invalidateCache();
+        streamBuffer.publish(MovieInfoEventType.GAP, null);
+        return mongoOperations.remove(Query.query(Criteria.where("_id").is(properties.getNodeId())), properties.getResumeTokenCollection())
+                .onErrorResume(error -> {
+                    LOGGER.warn("could not clear lost change stream resume token: {}", error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private static boolean isHistoryLost(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException && HISTORY_LOST_CODES.contains(mongoException.getCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ChangeStreamOptions.ChangeStreamOptionsBuilder changeStreamOptions() {
+        return ChangeStreamOptions.builder().fullDocumentLookup(FullDocument.UPDATE_LOOKUP);
+    }
+
+    private Mono<BsonDocument> loadResumeToken() {
+        return mongoOperations.findById(properties.getNodeId(), Document.class, properties.getResumeTokenCollection())
+                .mapNotNull(document -> document.getString(TOKEN_FIELD))
+                .map(BsonDocument::parse)
+                .doOnNext(resumeToken -> LOGGER.info("resuming movie info change stream from persisted token"));
+    }
+
+    private Mono<Void> checkpoint() {
+        BsonDocument resumeToken = lastResumeToken.get();
+        if (resumeToken == null || resumeToken.equals(lastCheckpointedToken)) {
+            return Mono.empty();
+        }
+        return mongoOperations.upsert(Query.query(Criteria.where("_id").is(properties.getNodeId())),
+                        Update.update(TOKEN_FIELD, resumeToken.toJson()).set("updatedAt", Instant.now()),
+                        properties.getResumeTokenCollection())
+                .doOnSuccess(result -> lastCheckpointedToken = resumeToken)
+                .then();
+    }
+
+    private void publish(ChangeStreamEvent<MovieInfo> event) {
+        MovieInfoEventType type = eventType(event);
+        if (type != null) {
+            MovieInfo movieInfo = event.getBody();
+            if (movieInfo == null) {
+                movieInfo = MovieInfo.builder().id(documentId(event)).build();
+            }
+            // the write may come from another replica, drop what this node cached for it
+            if (movieInfo.getId() != null) {
+                service.evict(movieInfo.getId());
+            }
+            streamBuffer.publish(type, movieInfo, clusterSequence(event));
+        }
+        BsonValue resumeToken = event.getResumeToken();
+        if (resumeToken != null) {
+            lastResumeToken.set(resumeToken.asDocument());
+        }
+    }
+
+    private static MovieInfoEventType eventType(ChangeStreamEvent<MovieInfo> event) {
+        if (event.getOperationType() == null) {
+            return null;
+        }
+        return switch (event.getOperationType()) {
+            case INSERT -> MovieInfoEventType.INSERT;
+            case UPDATE, REPLACE -> MovieInfoEventType.UPDATE;
+            case DELETE -> MovieInfoEventType.DELETE;
+            default -> null;
+        };
+    }
+
+    // every replica sees the same cluster time for a change, so a client can resume with it on any of them
+    private static Long clusterSequence(ChangeStreamEvent<MovieInfo> event) {
+        if (event.getRaw() == null || event.getRaw().getClusterTime() == null) {
+            return null;
+        }
+        return event.getRaw().getClusterTime().getValue();
+    }
+
+    private static String documentId(ChangeStreamEvent<MovieInfo> event) {
+        if (event.getRaw() == null || event.getRaw().getDocumentKey() == null) {
+            return null;
+        }
+        BsonValue id = event.getRaw().getDocumentKey().get("_id");
+        if (id == null) {
+            return null;
+        }
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+}
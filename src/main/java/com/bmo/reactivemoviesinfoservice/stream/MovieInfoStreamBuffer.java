@@ -0,0 +1,331 @@
+package com.bmo.reactivemoviesinfoservice.stream;
+
+import com.bmo.reactivemoviesinfoservice.config.StreamProperties;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoEvent;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoEventType;
+import com.bmo.reactivemoviesinfoservice.exception.SlowConsumerException;
+import com.bmo.reactivemoviesinfoservice.exception.StreamPositionEvictedException;
+import com.bmo.reactivemoviesinfoservice.exception.UnknownStreamPositionException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class MovieInfoStreamBuffer implements MeterBinder {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private static final int CAST_ENTRY_OVERHEAD_BYTES = 40;
+
+    private static final int LIVE_PREFETCH = 1;
+
+    enum EvictionReason { COUNT, BYTES, AGE }
+
+    private record Entry(MovieInfoEvent event, long bytes) {
+    }
+
+    private record Delivery(MovieInfoEvent event, List<Sinks.Many<MovieInfoEvent>> subscribers) {
+    }
+
+    private final StreamProperties properties;
+
+    private final Clock clock;
+
+    private final Deque<Entry> entries = new ArrayDeque<>();
+
+    private final Set<Sinks.Many<MovieInfoEvent>> subscribers = new LinkedHashSet<>();
+
+    private final Queue<Delivery> deliveries = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger deliveriesInProgress = new AtomicInteger();
+
+    private final Map<EvictionReason, AtomicLong> evictions = new EnumMap<>(EvictionReason.class);
+
+    private final Map<Sinks.EmitResult, AtomicLong> emitFailures = new EnumMap<>(Sinks.EmitResult.class);
+
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private final AtomicLong slowConsumerDisconnects = new AtomicLong();
+
+    private long nextSequence = 1;
+
+    private long retainedBytes;
+
+    private MovieInfoEvent lastEvicted;
+
+    // positions before it were never held by this node, it started tailing the cluster later
+    private Long firstClusterSequence;
+
+    @Autowired
+    public MovieInfoStreamBuffer(StreamProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    MovieInfoStreamBuffer(StreamProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        for (EvictionReason reason : EvictionReason.values()) {
+            evictions.put(reason, new AtomicLong());
+        }
+        for (Sinks.EmitResult result : Sinks.EmitResult.values()) {
+            if (result.isFailure()) {
+                emitFailures.put(result, new AtomicLong());
+            }
+        }
+    }
+
+    public void publishLocal(final MovieInfoEventType type, final MovieInfo movieInfo) {
+        if (properties.getSource() == StreamProperties.Source.LOCAL) {
+            publish(type, movieInfo);
+        }
+    }
+
+    public MovieInfoEvent publish(final MovieInfoEventType type, final MovieInfo movieInfo) {
+        return publish(type, movieInfo, null);
+    }
+
+    // a cluster-wide position, such as the change event's cluster time, makes a sequence valid on every replica;
+    // events sharing one position are numbered on from it so sequences stay unique
+    public MovieInfoEvent publish(final MovieInfoEventType type, final MovieInfo movieInfo, final Long clusterSequence) {
+        MovieInfoEvent event;
+        synchronized (this) {
+            long sequence = clusterSequence == null ? nextSequence : Math.max(clusterSequence, nextSequence);
+            if (clusterSequence != null && firstClusterSequence == null) {
+                firstClusterSequence = sequence;
+            }
+            nextSequence = sequence + 1;
+            event = new MovieInfoEvent(sequence, clock.instant(), type, movieInfo);
+            var entry = new Entry(event, estimateBytes(movieInfo));
+            entries.addLast(entry);
+            retainedBytes += entry.bytes();
+            evict();
+            // queued under the monitor so deliveries keep sequence order, emitted outside it
+            deliveries.offer(new Delivery(event, List.copyOf(subscribers)));
+        }
+        deliver();
+        return event;
+    }
+
+    public Flux<MovieInfoEvent> events(final Long fromSequence, final Instant since) {
+        return Flux.defer(() -> {
+            Sinks.Many<MovieInfoEvent> subscriber = Sinks.many().unicast().onBackpressureBuffer();
+            List<MovieInfoEvent> replay = new ArrayList<>();
+            synchronized (this) {
+                evict();
+                if (isEvicted(fromSequence, since)) {
+                    return Flux.error(new StreamPositionEvictedException(
+                            "requested stream position has been evicted, oldest available sequence is " + oldestSequence()));
+                }
+                if (isForeign(fromSequence)) {
+                    return Flux.error(new UnknownStreamPositionException(
+                            "sequence " + fromSequence + " was not issued by this node, latest sequence is " + (nextSequence - 1)));
+                }
+                for (Entry entry : entries) {
+                    if (isAtOrAfter(entry.event(), fromSequence, since)) {
+                        replay.add(entry.event());
+                    }
+                }
+                subscribers.add(subscriber);
+            }
+            Flux<MovieInfoEvent> live = bounded(subscriber.asFlux())
+                    .filter(event -> isAtOrAfter(event, fromSequence, null));
+            return Flux.mergeSequential(List.of(Flux.fromIterable(replay), live), 2, LIVE_PREFETCH)
+                    .doFinally(signalType -> unsubscribe(subscriber));
+        });
+    }
+
+    public synchronized int size() {
+        evict();
+        return entries.size();
+    }
+
+    public synchronized long retainedBytes() {
+        evict();
+        return retainedBytes;
+    }
+
+    public synchronized int subscriberCount() {
+        return subscribers.size();
+    }
+
+    long evictionCount(EvictionReason reason) {
+        return evictions.get(reason).get();
+    }
+
+    long droppedCount() {
+        return droppedEvents.get();
+    }
+
+    long disconnectCount() {
+        return slowConsumerDisconnects.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("movies.info.stream.buffer.size", this, MovieInfoStreamBuffer::size)
+                .description("Number of movie info events retained for replay")
+                .register(registry);
+        Gauge.builder("movies.info.stream.buffer.bytes", this, MovieInfoStreamBuffer::retainedBytes)
+                .description("Estimated heap retained by the replay buffer")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("movies.info.stream.subscribers", this, MovieInfoStreamBuffer::subscriberCount)
+                .description("Active movie info stream subscribers")
+                .register(registry);
+        evictions.forEach((reason, count) -> FunctionCounter.builder("movies.info.stream.buffer.evictions", count, AtomicLong::get)
+                .description("Events evicted from the replay buffer")
+                .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                .register(registry));
+        FunctionCounter.builder("movies.info.stream.subscriber.dropped", droppedEvents, AtomicLong::get)
+                .description("Events dropped from slow subscriber queues")
+                .tag("policy", properties.getOverflowPolicy().name().toLowerCase(Locale.ROOT))
+                .register(registry);
+        FunctionCounter.builder("movies.info.stream.subscriber.disconnects", slowConsumerDisconnects, AtomicLong::get)
+                .description("Slow subscribers disconnected after their queue overflowed")
+                .register(registry);
+        emitFailures.forEach((result, count) -> FunctionCounter.builder("movies.info.stream.emit.failures", count, AtomicLong::get)
+                .description("Events that could not be delivered to a stream subscriber")
+                .tag("result", result.name().toLowerCase(Locale.ROOT))
+                .register(registry));
+    }
+
+    private Flux<MovieInfoEvent> bounded(Flux<MovieInfoEvent> live) {
+        int bufferSize = properties.getSubscriberBufferSize();
+        return switch (properties.getOverflowPolicy()) {
+            case DROP_OLDEST -> live.onBackpressureBuffer(bufferSize, event -> droppedEvents.incrementAndGet(),
+                    BufferOverflowStrategy.DROP_OLDEST);
+            case DROP_NEWEST -> live.onBackpressureBuffer(bufferSize, event -> droppedEvents.incrementAndGet(),
+                    BufferOverflowStrategy.DROP_LATEST);
+            case LATEST_ONLY -> live.onBackpressureBuffer(1, event -> droppedEvents.incrementAndGet(),
+                    BufferOverflowStrategy.DROP_OLDEST);
+            case DISCONNECT -> live.onBackpressureBuffer(bufferSize, event -> slowConsumerDisconnects.incrementAndGet(),
+                            BufferOverflowStrategy.ERROR)
+                    .onErrorMap(Exceptions::isOverflow, error -> new SlowConsumerException(
+                            "stream subscriber fell more than " + bufferSize + " events behind and was disconnected"));
+        };
+    }
+
+    // one publisher thread at a time drains the queue, the others leave their delivery to it, so a slow subscriber
+    // never holds the monitor that subscribe, size and the gauges need
+    private void deliver() {
+        if (deliveriesInProgress.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            for (Delivery delivery = deliveries.poll(); delivery != null; delivery = deliveries.poll()) {
+                for (Sinks.Many<MovieInfoEvent> subscriber : delivery.subscribers()) {
+                    emit(subscriber, delivery.event());
+                }
+            }
+            missed = deliveriesInProgress.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void emit(Sinks.Many<MovieInfoEvent> subscriber, MovieInfoEvent event) {
+        Sinks.EmitResult result = subscriber.tryEmitNext(event);
+        if (result.isFailure()) {
+            emitFailures.get(result).incrementAndGet();
+        }
+    }
+
+    private synchronized void unsubscribe(Sinks.Many<MovieInfoEvent> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    private void evict() {
+        Instant oldestAllowed = clock.instant().minus(properties.getMaxAge());
+        while (!entries.isEmpty()) {
+            Entry oldest = entries.peekFirst();
+            EvictionReason reason;
+            if (entries.size() > properties.getMaxSize()) {
+                reason = EvictionReason.COUNT;
+            } else if (retainedBytes > properties.getMaxBytes().toBytes()) {
+                reason = EvictionReason.BYTES;
+            } else if (oldest.event().timestamp().isBefore(oldestAllowed)) {
+                reason = EvictionReason.AGE;
+            } else {
+                return;
+            }
+            entries.removeFirst();
+            retainedBytes -= oldest.bytes();
+            lastEvicted = oldest.event();
+            evictions.get(reason).incrementAndGet();
+        }
+    }
+
+    private boolean isEvicted(Long fromSequence, Instant since) {
+        if (fromSequence != null && firstClusterSequence != null && fromSequence < firstClusterSequence) {
+            return true;
+        }
+        if (lastEvicted == null) {
+            return false;
+        }
+        if (fromSequence != null && fromSequence <= lastEvicted.sequence()) {
+            return true;
+        }
+        return since != null && !since.isAfter(lastEvicted.timestamp());
+    }
+
+    // node-local sequences are only meaningful on the node that issued them, one from the future came from elsewhere;
+    // cluster sequences may run ahead of this node by its replication lag, the live filter covers that
+    private boolean isForeign(Long fromSequence) {
+        return fromSequence != null
+                && properties.getSource() == StreamProperties.Source.LOCAL
+                && fromSequence > nextSequence;
+    }
+
+    private long oldestSequence() {
+        return entries.isEmpty() ? nextSequence : entries.peekFirst().event().sequence();
+    }
+
+    private static boolean isAtOrAfter(MovieInfoEvent event, Long fromSequence, Instant since) {
+        if (fromSequence != null && event.sequence() < fromSequence) {
+            return false;
+        }
+        return since == null || !event.timestamp().isBefore(since);
+    }
+
+    private static long estimateBytes(MovieInfo movieInfo) {
+        if (movieInfo == null) {
+            return ENTRY_OVERHEAD_BYTES;
+        }
+        long bytes = ENTRY_OVERHEAD_BYTES
+                + 2L * length(movieInfo.getId())
+                + 2L * length(movieInfo.getName());
+        if (movieInfo.getCast() != null) {
+            for (String member : movieInfo.getCast()) {
+                bytes += CAST_ENTRY_OVERHEAD_BYTES + 2L * length(member);
+            }
+        }
+        return bytes;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,119 @@
+package com.bmo.reactivemoviesinfoservice.tracing;
+
+import com.bmo.reactivemoviesinfoservice.config.TracingProperties;
+import com.bmo.reactivemoviesinfoservice.ratelimit.TokenBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+public class ReactiveTracer {
+
+    public static final String TRACE_MODE_KEY = ReactiveTracer.class.getName() + ".mode";
+
+    private static final String SIGNAL_LOG_CATEGORY = "movies-info.trace.";
+
+    private static Logger LOGGER = LoggerFactory.getLogger(ReactiveTracer.class);
+
+    private TracingProperties properties;
+
+    private TokenBucket debugTraces;
+
+    public ReactiveTracer(TracingProperties properties) {
+        this.properties = properties;
+        this.debugTraces = new TokenBucket(properties.getDebugTracesPerSecond(), properties.getDebugTraceBurst(), System.nanoTime());
+    }
+
+    public TraceMode modeFor(final ServerHttpRequest request) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        if (isAuthorizedDebugRequest(request)) {
+            if (debugTraces.tryAcquire(System.nanoTime()) == 0) {
+                return TraceMode.FULL;
+            }
+            LOGGER.warn("debug trace budget exhausted, sampling {} {} instead", request.getMethod(), request.getPath());
+        }
+        double sampleRate = properties.getSampleRate();
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            return TraceMode.SAMPLED;
+        }
+        return null;
+    }
+
+    private boolean isAuthorizedDebugRequest(final ServerHttpRequest request) {
+        String token = properties.getDebugToken();
+        String presented = request.getHeaders().getFirst(properties.getDebugHeader());
+        if (token == null || token.isBlank() || presented == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public <T> Mono<T> trace(final String operation, final Mono<T> source) {
+        if (!properties.isEnabled()) {
+            return source;
+        }
+        return Mono.deferContextual(context -> {
+            TraceMode mode = context.getOrDefault(TRACE_MODE_KEY, null);
+            if (mode == null) {
+                return source;
+            }
+            Span span = new Span(operation, mode);
+            Mono<T> traced = mode == TraceMode.FULL ? source.log(SIGNAL_LOG_CATEGORY + operation, Level.INFO) : source;
+            return traced.doOnNext(value -> span.element())
+                    .doFinally(span::finish);
+        });
+    }
+
+    public <T> Flux<T> trace(final String operation, final Flux<T> source) {
+        if (!properties.isEnabled()) {
+            return source;
+        }
+        return Flux.deferContextual(context -> {
+            TraceMode mode = context.getOrDefault(TRACE_MODE_KEY, null);
+            if (mode == null) {
+                return source;
+            }
+            Span span = new Span(operation, mode);
+            Flux<T> traced = mode == TraceMode.FULL ? source.log(SIGNAL_LOG_CATEGORY + operation, Level.INFO) : source;
+            return traced.doOnNext(value -> span.element())
+                    .doFinally(span::finish);
+        });
+    }
+
+    private static final class Span {
+
+        private final String operation;
+
+        private final TraceMode mode;
+
+        private final long startNanos = System.nanoTime();
+
+        private final AtomicLong elements = new AtomicLong();
+
+        private Span(String operation, TraceMode mode) {
+            this.operation = operation;
+            this.mode = mode;
+        }
+
+        private void element() {
+            elements.incrementAndGet();
+        }
+
+        private void finish(SignalType signalType) {
+            LOGGER.info("span operation={} mode={} outcome={} elements={} durationMicros={}",
+                    operation, mode, signalType, elements.get(),
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.bmo.reactivemoviesinfoservice.tracing;
+
+public enum TraceMode {
+    SAMPLED,
+    FULL
+}
@@ -0,0 +1,25 @@
+package com.bmo.reactivemoviesinfoservice.tracing;
+
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+public class TracingWebFilter implements WebFilter {
+
+    private ReactiveTracer tracer;
+
+    public TracingWebFilter(ReactiveTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        TraceMode mode = tracer.modeFor(exchange.getRequest());
+        if (mode == null) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(ReactiveTracer.TRACE_MODE_KEY, mode));
+    }
+}
@@ -0,0 +1,174 @@
+package com.bmo.reactivemoviesinfoservice.warmup;
+
+import com.bmo.reactivemoviesinfoservice.config.HttpCacheProperties;
+import com.bmo.reactivemoviesinfoservice.config.IdempotencyProperties;
+import com.bmo.reactivemoviesinfoservice.config.StreamProperties;
+import com.bmo.reactivemoviesinfoservice.config.WarmUpProperties;
+import com.bmo.reactivemoviesinfoservice.controller.MovieInfoController;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoPatch;
+import com.bmo.reactivemoviesinfoservice.ratelimit.ClientIdentity;
+import com.bmo.reactivemoviesinfoservice.service.IdempotencyStore;
+import com.bmo.reactivemoviesinfoservice.service.MovieInfoSearchService;
+import com.bmo.reactivemoviesinfoservice.service.MovieInfoService;
+import com.bmo.reactivemoviesinfoservice.stream.MovieInfoStreamBuffer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.DecoderHttpMessageReader;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.util.MimeType;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Runs before the readiness state flips to ACCEPTING_TRAFFIC, so the JIT has compiled the hot controller, Jackson and
+// validation paths by the time the first real request arrives. It goes through the application's service, repository
+// proxies and codecs; only the stream buffer and idempotency store are private, so no warm-up event or key outlives it.
+public class MovieInfoWarmUp implements ApplicationRunner, MeterBinder {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(MovieInfoWarmUp.class);
+
+    private static final List<MimeType> MIME_TYPES = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+            MimeType.valueOf("application/x-jackson-smile"));
+
+    private static final ResolvableType MOVIE_INFO = ResolvableType.forClass(MovieInfo.class);
+
+    private static final ResolvableType MOVIE_INFO_LIST = ResolvableType.forClassWithGenerics(List.class, MovieInfo.class);
+
+    private static final ResolvableType MOVIE_INFO_PATCH = ResolvableType.forClass(MovieInfoPatch.class);
+
+    private static final MovieInfo INVALID_MOVIE_INFO = MovieInfo.builder().name(" ").year(-1).cast(List.of("")).build();
+
+    private WarmUpProperties properties;
+
+    private ServerCodecConfigurer codecConfigurer;
+
+    private Validator validator;
+
+    private MovieInfoController controller;
+
+    private volatile long iterations;
+
+    private volatile long durationNanos;
+
+    public MovieInfoWarmUp(WarmUpProperties properties, ServerCodecConfigurer codecConfigurer, Validator validator, MovieInfoService service,
+                           MovieInfoSearchService searchService, HttpCacheProperties cacheProperties, IdempotencyProperties idempotencyProperties,
+                           ClientIdentity clientIdentity) {
+        this.properties = properties;
+        this.codecConfigurer = codecConfigurer;
+        this.validator = validator;
+        this.controller = new MovieInfoController(service, searchService, new MovieInfoStreamBuffer(new StreamProperties()),
+                cacheProperties, new IdempotencyStore(idempotencyProperties), clientIdentity);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + properties.getMaxDuration().toNanos();
+        long iteration = 0;
+        try {
+            while (iteration < properties.getIterations() && System.nanoTime() - deadline < 0) {
+                iteration(iteration);
+                iteration++;
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("warm-up stopped after {} iterations: {}", iteration, e.getMessage());
+        }
+        iterations = iteration;
+        durationNanos = System.nanoTime() - start;
+        LOGGER.info("warm-up ran {} iterations in {} ms", iteration, TimeUnit.NANOSECONDS.toMillis(durationNanos));
+    }
+
+    private void iteration(long iteration) {
+        MimeType mimeType = MIME_TYPES.get((int) (iteration % MIME_TYPES.size()));
+        MovieInfo movieInfo = roundTrip(sample(iteration), MOVIE_INFO, mimeType);
+        validator.validate(movieInfo);
+        validator.validate(INVALID_MOVIE_INFO);
+
+        // without an Idempotency-Key, there is no request to resolve a client scope from
+        MovieInfo created = controller.create(null, movieInfo, null).block();
+        String id = created.getId();
+        encode(created, MOVIE_INFO, mimeType);
+        encode(controller.getById(id, null).block().getBody(), MOVIE_INFO, mimeType);
+        controller.getById(id, "\"" + created.getVersion() + "\"").block();
+        encode(controller.getAll(created.getYear(), null, 10, mimeType.toString()).block().getBody(), MOVIE_INFO_LIST, mimeType);
+        encode(controller.search(created.getName(), 10, 0).block(), MOVIE_INFO_LIST, mimeType);
+
+        MovieInfo update = roundTrip(created.toBuilder().cast(List.of("Warm", "Up", "Again")).build(), MOVIE_INFO, mimeType);
+        encode(controller.update(id, update).block().getBody(), MOVIE_INFO, mimeType);
+        MovieInfoPatch patch = roundTrip(new MovieInfoPatch(null, created.getYear() + 1, null, null), MOVIE_INFO_PATCH, mimeType);
+        validator.validate(patch);
+        encode(controller.patch(id, null, patch).block().getBody(), MOVIE_INFO, mimeType);
+        controller.delete(id).block();
+    }
+
+    private static MovieInfo sample(long iteration) {
+        return MovieInfo.builder()
+                .name("Warm Up " + iteration)
+                .year(2000 + (int) (iteration % 20))
+                .cast(List.of("Warm", "Up"))
+                .releaseDate(LocalDate.of(2000, 1, 1).plusDays(iteration % 365))
+                .build();
+    }
+
+    private <T> T roundTrip(T value, ResolvableType type, MimeType mimeType) {
+        DataBuffer buffer = encoder(type, mimeType).encodeValue(value, DefaultDataBufferFactory.sharedInstance, type, mimeType, Map.of());
+        // the decoder releases the buffer
+        return this.<T>decoder(type, mimeType).decode(buffer, type, mimeType, Map.of());
+    }
+
+    private void encode(Object value, ResolvableType type, MimeType mimeType) {
+        DataBufferUtils.release(encoder(type, mimeType).encodeValue(value, DefaultDataBufferFactory.sharedInstance, type, mimeType, Map.of()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Encoder<Object> encoder(ResolvableType type, MimeType mimeType) {
+        return codecConfigurer.getWriters().stream()
+                .filter(EncoderHttpMessageWriter.class::isInstance)
+                .map(writer -> (Encoder<Object>) ((EncoderHttpMessageWriter<?>) writer).getEncoder())
+                .filter(encoder -> encoder.canEncode(type, mimeType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("no encoder for " + type + " as " + mimeType));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Decoder<T> decoder(ResolvableType type, MimeType mimeType) {
+        return codecConfigurer.getReaders().stream()
+                .filter(DecoderHttpMessageReader.class::isInstance)
+                .map(reader -> (Decoder<T>) ((DecoderHttpMessageReader<?>) reader).getDecoder())
+                .filter(decoder -> decoder.canDecode(type, mimeType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("no decoder for " + type + " as " + mimeType));
+    }
+
+    long iterations() {
+        return iterations;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("movies.info.warm.up.iterations", this, MovieInfoWarmUp::iterations)
+                .description("Warm-up iterations run before the service reported ready")
+                .register(registry);
+        TimeGauge.builder("movies.info.warm.up.duration", this, TimeUnit.NANOSECONDS, warmUp -> warmUp.durationNanos)
+                .description("Time spent warming up before the service reported ready")
+                .register(registry);
+    }
+}
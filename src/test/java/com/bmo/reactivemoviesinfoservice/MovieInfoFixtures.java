@@ -0,0 +1,22 @@
+package com.bmo.reactivemoviesinfoservice;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public final class MovieInfoFixtures {
+
+    private MovieInfoFixtures() {
+    }
+
+    // a valid movie info released on the first day of its year, tests override what they are about before build()
+    public static MovieInfo.MovieInfoBuilder movieInfo(String id, String name, int year) {
+        return MovieInfo.builder()
+                .id(id)
+                .name(name)
+                .year(year)
+                .cast(List.of("Luke", "Obiwan"))
+                .releaseDate(LocalDate.of(year, 1, 1));
+    }
+}
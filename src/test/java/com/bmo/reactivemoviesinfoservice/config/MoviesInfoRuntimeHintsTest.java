@@ -0,0 +1,44 @@
+package com.bmo.reactivemoviesinfoservice.config;
+
+import com.bmo.reactivemoviesinfoservice.domain.ErrorResponse;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoviesInfoRuntimeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new MoviesInfoRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void when_hints_are_registered_then_movie_info_is_fully_reflective() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(MovieInfo.class)
+                .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS,
+                        MemberCategory.DECLARED_FIELDS)
+                .test(hints));
+    }
+
+    @Test
+    void when_hints_are_registered_then_error_response_can_be_serialized() {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ErrorResponse.class, "errors").test(hints));
+    }
+
+    @Test
+    void when_hints_are_registered_then_repository_proxy_is_allowed() {
+        assertTrue(RuntimeHintsPredicates.proxies()
+                .forInterfaces(AopProxyUtils.completeJdkProxyInterfaces(MovieRepository.class))
+                .test(hints));
+    }
+}
@@ -1,13 +1,19 @@
 package com.bmo.reactivemoviesinfoservice.controller;
 
+import com.bmo.reactivemoviesinfoservice.domain.BulkItemResult;
 import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.repository.MovieInfoBackfill;
 import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import com.bmo.reactivemoviesinfoservice.service.MovieInfoService;
+import org.bson.Document;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -15,11 +21,15 @@ import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "movies-info.rate-limit.api-keys=client-a,client-b")
 @ActiveProfiles("test")
 @AutoConfigureWebTestClient
 class MovieInfoControllerTest {
@@ -29,6 +39,15 @@ class MovieInfoControllerTest {
     @Autowired
     private MovieRepository repository;
 
+    @Autowired
+    private MovieInfoService service;
+
+    @Autowired
+    private ReactiveMongoOperations mongoOperations;
+
+    @Autowired
+    private MovieInfoBackfill backfill;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -62,6 +81,7 @@ class MovieInfoControllerTest {
     @AfterEach
     void tearDown() {
         repository.deleteAll().block();
+        service.invalidateCache();
     }
 
     @Test
@@ -87,6 +107,149 @@ class MovieInfoControllerTest {
                 });
     }
 
+    @Test
+    void when_POST_is_retried_with_same_idempotency_key_then_create_once() {
+        MovieInfo movieInfo = MovieInfo.builder()
+                .name("Test Movie")
+                .year(2023)
+                .cast(List.of("Actor1", "Actress"))
+                .releaseDate(LocalDate.parse("2023-01-01"))
+                .build();
+
+        var created = webTestClient.post()
+                .uri(MOVIES_INFO_URL)
+                .header("Idempotency-Key", "create-test-movie")
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isCreated()
+                .expectBody(MovieInfo.class)
+                .returnResult()
+                .getResponseBody();
+
+        webTestClient.post()
+                .uri(MOVIES_INFO_URL)
+                .header("Idempotency-Key", "create-test-movie")
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isCreated()
+                .expectBody(MovieInfo.class)
+                .consumeWith(result -> assertEquals(created.getId(), result.getResponseBody().getId()));
+
+        movieInfo.setName("Another Movie");
+        webTestClient.post()
+                .uri(MOVIES_INFO_URL)
+                .header("Idempotency-Key", "create-test-movie")
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(422);
+
+        StepVerifier.create(repository.count())
+                .expectNext(4L)
+                .verifyComplete();
+    }
+
+    @Test
+    void when_two_clients_use_same_idempotency_key_then_create_for_each() {
+        MovieInfo movieInfo = MovieInfo.builder()
+                .name("Test Movie")
+                .year(2023)
+                .cast(List.of("Actor1", "Actress"))
+                .releaseDate(LocalDate.parse("2023-01-01"))
+                .build();
+
+        var first = webTestClient.post()
+                .uri(MOVIES_INFO_URL)
+                .header("Idempotency-Key", "shared-key")
+                .header("X-API-Key", "client-a")
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isCreated()
+                .expectBody(MovieInfo.class)
+                .returnResult()
+                .getResponseBody();
+
+        webTestClient.post()
+                .uri(MOVIES_INFO_URL)
+                .header("Idempotency-Key", "shared-key")
+                .header("X-API-Key", "client-b")
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isCreated()
+                .expectBody(MovieInfo.class)
+                .consumeWith(result -> assertNotEquals(first.getId(), result.getResponseBody().getId()));
+    }
+
+    @Test
+    void when_api_key_is_not_configured_then_scope_idempotency_key_by_address() {
+        MovieInfo movieInfo = MovieInfo.builder()
+                .name("Test Movie")
+                .year(2023)
+                .cast(List.of("Actor1", "Actress"))
+                .releaseDate(LocalDate.parse("2023-01-01"))
+                .build();
+
+        var first = webTestClient.post()
+                .uri(MOVIES_INFO_URL)
+                .header("Idempotency-Key", "unconfigured-key")
+                .header("X-API-Key", "made-up-1")
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isCreated()
+                .expectBody(MovieInfo.class)
+                .returnResult()
+                .getResponseBody();
+
+        webTestClient.post()
+                .uri(MOVIES_INFO_URL)
+                .header("Idempotency-Key", "unconfigured-key")
+                .header("X-API-Key", "made-up-2")
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isCreated()
+                .expectBody(MovieInfo.class)
+                .consumeWith(result -> assertEquals(first.getId(), result.getResponseBody().getId()));
+    }
+
+    @Test
+    void when_POST_bulk_then_insert_valid_items_and_report_rejected_ones() {
+        String ndjson = """
+                {"name":"Bulk Movie","year":2023,"cast":["Actor1"],"releaseDate":"2023-01-01"}
+                {"name":"","year":2023,"cast":["Actor1"],"releaseDate":"2023-01-01"}
+                {"id":"1SW","name":"Start Wars VI","year":1983,"cast":["Luke"],"releaseDate":"1983-01-01"}
+                """;
+
+        Flux<BulkItemResult> results = webTestClient.post()
+                .uri(MOVIES_INFO_URL + "/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(ndjson)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .returnResult(BulkItemResult.class)
+                .getResponseBody();
+
+        StepVerifier.create(results)
+                .assertNext(result -> {
+                    assertNotNull(result.id());
+                    assertNull(result.error());
+                })
+                .assertNext(result -> assertEquals(List.of("name must not be blank"), result.error().errors()))
+                .assertNext(result -> assertNotNull(result.error()))
+                .verifyComplete();
+
+        StepVerifier.create(repository.count())
+                .expectNext(4L)
+                .verifyComplete();
+    }
+
     @Test
     void when_GET_withoutId_then_return_all_movies_info() {
         webTestClient.get()
@@ -113,6 +276,132 @@ class MovieInfoControllerTest {
                 .hasSize(1);
     }
 
+    @Test
+    void when_GET_with_limit_then_page_through_all_movies_info() {
+        var firstPage = webTestClient.get()
+                .uri(MOVIES_INFO_URL + "?limit=2")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .hasSize(2)
+                .returnResult();
+
+        var continuationToken = firstPage.getResponseHeaders().getFirst("X-Continuation-Token");
+        assertNotNull(continuationToken);
+
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL + "?limit=2&after={after}", continuationToken)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .doesNotExist("X-Continuation-Token")
+                .expectBodyList(MovieInfo.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void when_GET_with_limit_one_then_walk_mixed_id_types_exactly_once() {
+        List<String> ids = new ArrayList<>();
+        String continuationToken = null;
+        do {
+            var page = webTestClient.get()
+                    .uri(continuationToken == null ? MOVIES_INFO_URL + "?limit=1" : MOVIES_INFO_URL + "?limit=1&after=" + continuationToken)
+                    .exchange()
+                    .expectStatus()
+                    .is2xxSuccessful()
+                    .expectBodyList(MovieInfo.class)
+                    .hasSize(1)
+                    .returnResult();
+            ids.add(page.getResponseBody().get(0).getId());
+            continuationToken = page.getResponseHeaders().getFirst("X-Continuation-Token");
+        } while (continuationToken != null && ids.size() <= 3);
+
+        assertEquals(3, ids.size());
+        assertEquals(3, Set.copyOf(ids).size());
+        assertEquals("1SW", ids.get(0));
+    }
+
+    @Test
+    void when_GET_accepting_binary_formats_then_negotiate_cbor_or_smile() {
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL)
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .contentType(MediaType.APPLICATION_CBOR)
+                .expectBodyList(MovieInfo.class)
+                .hasSize(3);
+
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL)
+                .accept(MediaType.parseMediaType("application/x-jackson-smile"))
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .contentType("application/x-jackson-smile")
+                .expectBodyList(MovieInfo.class)
+                .hasSize(3);
+    }
+
+    @Test
+    void when_GET_with_summary_fields_then_return_only_id_name_and_year() {
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL + "?fields=summary&year=1983")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo("1SW")
+                .jsonPath("$[0].name").isEqualTo("Start Wars VI")
+                .jsonPath("$[0].year").isEqualTo(1983)
+                .jsonPath("$[0].cast").doesNotExist()
+                .jsonPath("$[0].releaseDate").doesNotExist();
+    }
+
+    @Test
+    void when_GET_summary_fields_after_string_id_then_continue_into_object_ids() {
+        var firstPage = webTestClient.get()
+                .uri(MOVIES_INFO_URL + "?fields=summary&limit=1")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo("1SW")
+                .returnResult();
+
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL + "?fields=summary&limit=5&after=" + firstPage.getResponseHeaders().getFirst("X-Continuation-Token"))
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2);
+    }
+
+    @Test
+    void when_GET_with_unknown_field_then_return_bad_request() {
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL + "?fields=budget")
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    @Test
+    void when_GET_with_malformed_continuation_token_then_return_bad_request() {
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL + "?after={after}", "not a token")
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
     @Test
     void when_GET_withId_then_return_correspondent_movie_info() {
         var movieInfoId = "1SW";
@@ -126,6 +415,123 @@ class MovieInfoControllerTest {
                 .isEqualTo("Start Wars VI");
     }
 
+    @Test
+    void when_GET_withId_and_matching_if_none_match_then_return_not_modified() {
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL + "/{id}", "1SW")
+                .header("If-None-Match", "\"0\"")
+                .exchange()
+                .expectStatus()
+                .isNotModified()
+                .expectHeader()
+                .valueEquals("ETag", "\"0\"")
+                .expectHeader()
+                .valueEquals("Cache-Control", "no-cache")
+                .expectBody()
+                .isEmpty();
+    }
+
+    @Test
+    void when_GET_withId_and_stale_if_none_match_then_return_movie_info() {
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL + "/{id}", "1SW")
+                .header("If-None-Match", "\"7\"")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .valueEquals("ETag", "\"0\"")
+                .expectBody()
+                .jsonPath("$.name")
+                .isEqualTo("Start Wars VI");
+    }
+
+    @Test
+    void when_GET_list_with_matching_if_none_match_then_return_not_modified() {
+        var entityTag = webTestClient.get()
+                .uri(MOVIES_INFO_URL + "?year=1983")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .returnResult(MovieInfo.class)
+                .getResponseHeaders()
+                .getETag();
+        assertNotNull(entityTag);
+
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL + "?year=1983")
+                .header("If-None-Match", entityTag)
+                .exchange()
+                .expectStatus()
+                .isNotModified();
+    }
+
+    @Test
+    void when_GET_list_in_another_encoding_then_do_not_match_entity_tag_and_vary_on_accept() {
+        var entityTag = webTestClient.get()
+                .uri(MOVIES_INFO_URL + "?year=1983")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .valueEquals("Vary", "Accept", "Accept-Encoding")
+                .returnResult(MovieInfo.class)
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL + "?year=1983")
+                .accept(MediaType.APPLICATION_CBOR)
+                .header("If-None-Match", entityTag)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .contentType(MediaType.APPLICATION_CBOR);
+    }
+
+    @Test
+    void when_GET_search_with_name_prefix_then_return_ranked_matches() {
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL + "/search?q={q}", "start wars v")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").isEqualTo("Start Wars V")
+                .jsonPath("$[1].name").isEqualTo("Start Wars VI");
+    }
+
+    @Test
+    void when_GET_search_with_word_or_cast_prefix_then_return_bounded_matches() {
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL + "/search?q={q}", "Wars")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .hasSize(3);
+
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL + "/search?q={q}&limit=2", "obi")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void when_GET_search_with_blank_query_then_return_bad_request() {
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL + "/search?q={q}", " ")
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
     @Test
     void when_GET_with_invalid_id_then_return_not_found() {
         var movieInfoId = "12SW";
@@ -162,6 +568,132 @@ class MovieInfoControllerTest {
                 });
     }
 
+    @Test
+    void when_PUT_document_written_before_versioning_then_update_it() {
+        mongoOperations.insert(new Document("_id", "legacy")
+                        .append("name", "Legacy Movie")
+                        .append("year", 1999)
+                        .append("cast", List.of("Legacy Actor")), mongoOperations.getCollectionName(MovieInfo.class))
+                .block();
+        MovieInfo movieInfo = MovieInfo.builder()
+                .name("Legacy Movie Remastered")
+                .releaseDate(LocalDate.parse("1999-01-01"))
+                .cast(List.of("Legacy Actor"))
+                .year(1999)
+                .build();
+
+        webTestClient.put()
+                .uri(MOVIES_INFO_URL + "/{id}", "legacy")
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .valueEquals("ETag", "\"1\"")
+                .expectBody(MovieInfo.class)
+                .consumeWith(result -> assertEquals("Legacy Movie Remastered", result.getResponseBody().getName()));
+    }
+
+    @Test
+    void when_backfill_runs_then_documents_without_version_start_at_zero() {
+        mongoOperations.insert(new Document("_id", "legacy").append("name", "Legacy Movie"), mongoOperations.getCollectionName(MovieInfo.class))
+                .block();
+
+        assertEquals(1L, backfill.backfillVersions().block());
+        assertEquals(0L, repository.findById("legacy").block().getVersion());
+    }
+
+    @Test
+    void when_backfill_runs_then_documents_without_search_keys_become_searchable() {
+        mongoOperations.insert(new Document("_id", "legacy").append("name", "Legacy Movie").append("cast", List.of("Han Solo")),
+                        mongoOperations.getCollectionName(MovieInfo.class))
+                .block();
+
+        assertEquals(1L, backfill.backfillSearchKeys().block());
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL + "/search?q={q}", "solo")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("Legacy Movie");
+    }
+
+    @Test
+    void when_POST_with_existing_id_then_overwrite_it() {
+        MovieInfo movieInfo = MovieInfo.builder()
+                .id("1SW")
+                .name("Return of the Jedi")
+                .year(1983)
+                .cast(List.of("Luke"))
+                .releaseDate(LocalDate.parse("1983-05-25"))
+                .build();
+
+        webTestClient.post()
+                .uri(MOVIES_INFO_URL)
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isCreated()
+                .expectBody(MovieInfo.class)
+                .consumeWith(result -> assertEquals("Return of the Jedi", result.getResponseBody().getName()));
+
+        assertEquals("Return of the Jedi", repository.findById("1SW").block().getName());
+    }
+
+    @Test
+    void when_PATCH_then_update_only_given_fields_and_bump_version() {
+        var movieInfoId = "1SW";
+
+        webTestClient.patch()
+                .uri(MOVIES_INFO_URL + "/{id}", movieInfoId)
+                .header("If-Match", "\"0\"")
+                .bodyValue(Map.of("name", "Return of the Jedi"))
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .valueEquals("ETag", "\"1\"")
+                .expectBody(MovieInfo.class)
+                .consumeWith(movieInfoEntityExchangeResult -> {
+                    MovieInfo responseBody = movieInfoEntityExchangeResult.getResponseBody();
+                    assertEquals("Return of the Jedi", responseBody.getName());
+                    assertEquals(1983, responseBody.getYear());
+                    assertEquals(List.of("Luke", "Obiwan"), responseBody.getCast());
+                });
+    }
+
+    @Test
+    void when_PATCH_with_stale_if_match_then_return_precondition_failed() {
+        var movieInfoId = "1SW";
+
+        webTestClient.patch()
+                .uri(MOVIES_INFO_URL + "/{id}", movieInfoId)
+                .bodyValue(Map.of("year", 1984))
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful();
+
+        webTestClient.patch()
+                .uri(MOVIES_INFO_URL + "/{id}", movieInfoId)
+                .header("If-Match", "\"0\"")
+                .bodyValue(Map.of("name", "Return of the Jedi"))
+                .exchange()
+                .expectStatus()
+                .isEqualTo(412);
+    }
+
+    @Test
+    void when_PATCH_with_not_existent_id_then_return_not_found() {
+        webTestClient.patch()
+                .uri(MOVIES_INFO_URL + "/{id}", "12SW")
+                .bodyValue(Map.of("name", "Return of the Jedi"))
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+    }
+
     @Test
     void when_PUT_with_not_existent_id_then_return_not_found() {
         var movieInfoId = "12SW";
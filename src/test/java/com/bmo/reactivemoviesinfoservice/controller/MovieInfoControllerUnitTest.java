@@ -1,30 +1,49 @@
 package com.bmo.reactivemoviesinfoservice.controller;
 
+import com.bmo.reactivemoviesinfoservice.config.HttpCacheProperties;
 import com.bmo.reactivemoviesinfoservice.domain.ErrorResponse;
 import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoEvent;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoEventType;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoPage;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoPatch;
+import com.bmo.reactivemoviesinfoservice.ratelimit.ClientIdentity;
+import com.bmo.reactivemoviesinfoservice.service.IdempotencyStore;
+import com.bmo.reactivemoviesinfoservice.service.MovieInfoSearchService;
 import com.bmo.reactivemoviesinfoservice.service.MovieInfoService;
+import com.bmo.reactivemoviesinfoservice.stream.MovieInfoStreamBuffer;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(controllers = MovieInfoController.class)
 @AutoConfigureWebTestClient
+@EnableConfigurationProperties(HttpCacheProperties.class)
 public class MovieInfoControllerUnitTest {
 
     private static final String MOVIES_INFO_URL = "/v1/moviesInfo";
@@ -35,6 +54,18 @@ public class MovieInfoControllerUnitTest {
     @MockBean
     private MovieInfoService service;
 
+    @MockBean
+    private MovieInfoSearchService searchService;
+
+    @MockBean
+    private MovieInfoStreamBuffer streamBuffer;
+
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+
+    @MockBean
+    private ClientIdentity clientIdentity;
+
     @Test
     void when_GET_withoutId_then_return_all_movies_info() {
         var moviesListFlux = List.of(
@@ -59,7 +90,7 @@ public class MovieInfoControllerUnitTest {
                         .build()
         );
 
-        when(service.getAllMoviesInfo()).thenReturn(Flux.fromIterable(moviesListFlux));
+        when(service.getMoviesInfoPage(null, null, null)).thenReturn(Mono.just(new MovieInfoPage<>(moviesListFlux, null)));
 
         webTestClient.get()
                 .uri(MOVIES_INFO_URL)
@@ -82,11 +113,63 @@ public class MovieInfoControllerUnitTest {
                         .build()
         );
 
-        when(service.getMoviesByYear(1983)).thenReturn(Flux.fromIterable(moviesListFlux));
+        when(service.getMoviesInfoPage(1983, null, null)).thenReturn(Mono.just(new MovieInfoPage<>(moviesListFlux, null)));
 
         var uri = UriComponentsBuilder.fromUriString(MOVIES_INFO_URL)
                 .queryParam("year", 1983)
                 .buildAndExpand().toUri();
+
+        webTestClient.get()
+                .uri(uri)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void when_GET_page_with_more_results_then_return_continuation_token_header() {
+        var moviesList = List.of(
+                MovieInfo.builder()
+                        .id("1SW")
+                        .name("Start Wars VI")
+                        .year(1983)
+                        .cast(List.of("Luke", "Obiwan"))
+                        .releaseDate(LocalDate.parse("1983-01-01"))
+                        .build()
+        );
+
+        when(service.getMoviesInfoPage(null, null, 1)).thenReturn(Mono.just(new MovieInfoPage<>(moviesList, "next-token")));
+
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL + "?limit=1")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .valueEquals(MovieInfoController.CONTINUATION_TOKEN_HEADER, "next-token")
+                .expectBodyList(MovieInfo.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void when_GET_with_fields_then_return_only_selected_fields() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("id", "1SW");
+        summary.put("name", "Start Wars VI");
+
+        when(service.getMoviesInfoFieldsPage(null, null, null, "id,name"))
+                .thenReturn(Mono.just(new MovieInfoPage<>(List.of(summary), null)));
+
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL + "?fields=id,name")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("Start Wars VI")
+                .jsonPath("$[0].cast").doesNotExist();
     }
 
     @Test
@@ -112,6 +195,22 @@ public class MovieInfoControllerUnitTest {
                 .isEqualTo("Start Wars VI");
     }
 
+    @Test
+    void when_GET_withId_and_matching_if_none_match_then_answer_without_loading_document() {
+        when(service.getMovieInfoVersion("1SW")).thenReturn(Mono.just(3L));
+
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL + "/{id}", "1SW")
+                .header("If-None-Match", "W/\"2\", \"3\"")
+                .exchange()
+                .expectStatus()
+                .isNotModified()
+                .expectHeader()
+                .valueEquals("ETag", "\"3\"");
+
+        verify(service, never()).getMovieInfoById(anyString());
+    }
+
     @Test
     void when_POST_with_valid_payload_then_create_movie_info() {
         var movieInfoRequest = MovieInfo.builder()
@@ -203,16 +302,101 @@ public class MovieInfoControllerUnitTest {
                 });
     }
 
+    @Test
+    void when_PATCH_with_blank_name_then_bad_request() {
+        webTestClient.patch()
+                .uri(MOVIES_INFO_URL + "/{id}", "1SW")
+                .bodyValue(new MovieInfoPatch(" ", null, null, null))
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(ErrorResponse.class)
+                .consumeWith(errorResponseEntityExchangeResult -> {
+                    var responseBody = errorResponseEntityExchangeResult.getResponseBody();
+                    assertEquals(List.of("name must not be blank"), responseBody.errors());
+                });
+    }
+
+    @Test
+    void when_PATCH_with_if_match_then_pass_expected_version() {
+        var movieInfoResponse = MovieInfo.builder()
+                .id("1SW")
+                .name("Return of the Jedi")
+                .year(1983)
+                .releaseDate(LocalDate.parse("1983-01-01"))
+                .version(4L)
+                .build();
+
+        when(service.patchMovieInfo(eq("1SW"), isA(MovieInfoPatch.class), eq(3L))).thenReturn(Mono.just(movieInfoResponse));
+
+        webTestClient.patch()
+                .uri(MOVIES_INFO_URL + "/{id}", "1SW")
+                .header("If-Match", "\"3\"")
+                .bodyValue(new MovieInfoPatch("Return of the Jedi", null, null, null))
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .valueEquals("ETag", "\"4\"");
+    }
+
+    @Test
+    void when_PATCH_with_malformed_if_match_then_return_bad_request() {
+        webTestClient.patch()
+                .uri(MOVIES_INFO_URL + "/{id}", "1SW")
+                .header("If-Match", "W/\"three\"")
+                .bodyValue(new MovieInfoPatch("Return of the Jedi", null, null, null))
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+
+        verify(service, never()).patchMovieInfo(anyString(), isA(MovieInfoPatch.class), any());
+    }
+
     @Test
     void when_DELETE_then_delete_correspondent_movie_info() {
         var movieInfoId = "1SW";
 
-        when(service.deleteMovieInfo(anyString())).thenReturn(Mono.empty());
+        when(service.deleteMovieInfo(anyString())).thenReturn(Mono.just(true));
 
         webTestClient.delete()
                 .uri(MOVIES_INFO_URL + "/{id}", movieInfoId)
                 .exchange()
                 .expectStatus()
                 .isNoContent();
+
+        verify(streamBuffer).publishLocal(eq(MovieInfoEventType.DELETE), any(MovieInfo.class));
+    }
+
+    @Test
+    void when_DELETE_unknown_id_then_publish_no_delete_event() {
+        when(service.deleteMovieInfo(anyString())).thenReturn(Mono.just(false));
+
+        webTestClient.delete()
+                .uri(MOVIES_INFO_URL + "/{id}", "unknown")
+                .exchange()
+                .expectStatus()
+                .isNoContent();
+
+        verify(streamBuffer, never()).publishLocal(any(MovieInfoEventType.class), any(MovieInfo.class));
+    }
+
+    @Test
+    void when_GET_stream_then_emit_inserted_movies_info_only() {
+        var inserted = MovieInfo.builder().id("1SW").name("Start Wars VI").year(1983).build();
+        when(streamBuffer.events(null, null)).thenReturn(Flux.just(
+                new MovieInfoEvent(1, Instant.now(), MovieInfoEventType.INSERT, inserted),
+                new MovieInfoEvent(2, Instant.now(), MovieInfoEventType.UPDATE, inserted),
+                new MovieInfoEvent(3, Instant.now(), MovieInfoEventType.DELETE, MovieInfo.builder().id("1SW").build()),
+                new MovieInfoEvent(4, Instant.now(), MovieInfoEventType.GAP, null)));
+
+        webTestClient.get()
+                .uri(MOVIES_INFO_URL + "/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(MovieInfo.class)
+                .isEqualTo(List.of(inserted));
     }
 }
@@ -0,0 +1,108 @@
+package com.bmo.reactivemoviesinfoservice.controller;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoExportItem;
+import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.bmo.reactivemoviesinfoservice.MovieInfoFixtures.movieInfo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "movies-info.export.checkpoint-every=2")
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+class MovieInfoExportControllerTest {
+
+    private static final String EXPORT_URL = "/v1/moviesInfo/export";
+
+    @Autowired
+    private MovieRepository repository;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        repository.saveAll(List.of(
+                        movieInfo("1SW", "Start Wars IV", 1977).build(),
+                        movieInfo("2SW", "Start Wars V", 1980).build(),
+                        movieInfo("3SW", "Start Wars VI", 1983).build()))
+                .blockLast();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll().block();
+    }
+
+    @Test
+    void when_GET_export_then_stream_all_movies_info_with_checkpoints() {
+        List<MovieInfoExportItem> items = export(null);
+
+        assertEquals(5, items.size());
+        assertEquals(List.of("1SW", "2SW"), List.of(items.get(0).movieInfo().getId(), items.get(1).movieInfo().getId()));
+        assertNotNull(items.get(2).checkpoint());
+        assertNull(items.get(2).complete());
+        assertEquals("3SW", items.get(3).movieInfo().getId());
+        assertTrue(items.get(4).complete());
+    }
+
+    @Test
+    void when_GET_export_from_checkpoint_then_resume_after_it() {
+        String checkpoint = export(null).get(2).checkpoint();
+
+        List<MovieInfoExportItem> items = export(checkpoint);
+
+        assertEquals(2, items.size());
+        assertEquals("3SW", items.get(0).movieInfo().getId());
+        assertTrue(items.get(1).complete());
+    }
+
+    @Test
+    void when_GET_export_from_string_id_checkpoint_then_continue_into_object_ids() {
+        String generatedId = repository.save(movieInfo(null, "Start Wars VII", 2015).build()).block().getId();
+        String checkpoint = export(null).get(2).checkpoint();
+
+        List<MovieInfoExportItem> items = export(checkpoint);
+
+        List<String> ids = items.stream().filter(item -> item.movieInfo() != null).map(item -> item.movieInfo().getId()).toList();
+        assertEquals(List.of("3SW", generatedId), ids);
+        assertTrue(items.get(items.size() - 1).complete());
+    }
+
+    @Test
+    void when_GET_export_with_malformed_checkpoint_then_return_bad_request() {
+        webTestClient.get()
+                .uri(EXPORT_URL + "?checkpoint={checkpoint}", "not a token")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    private List<MovieInfoExportItem> export(String checkpoint) {
+        return webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(EXPORT_URL).queryParamIfPresent("checkpoint", Optional.ofNullable(checkpoint)).build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .returnResult(MovieInfoExportItem.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+    }
+}
@@ -0,0 +1,60 @@
+package com.bmo.reactivemoviesinfoservice.controller;
+
+import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static com.bmo.reactivemoviesinfoservice.MovieInfoFixtures.movieInfo;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+class MovieInfoStatsControllerTest {
+
+    private static final String STATS_URL = "/v1/moviesInfo/stats";
+
+    @Autowired
+    private MovieRepository repository;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        repository.saveAll(List.of(
+                        movieInfo(null, "Start Wars IV", 1977).cast(List.of("Luke", "Obiwan")).build(),
+                        movieInfo(null, "Start Wars V", 1980).cast(List.of("Luke", "Obiwan")).build(),
+                        movieInfo(null, "Start Wars VI", 1983).cast(List.of("Luke", "Leia")).build()))
+                .blockLast();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll().block();
+    }
+
+    @Test
+    void when_GET_stats_then_return_counts_per_year_and_cast_member() {
+        webTestClient.get()
+                .uri(STATS_URL)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.total").isEqualTo(3)
+                .jsonPath("$.byYear.1977").isEqualTo(1)
+                .jsonPath("$.byYear.1983").isEqualTo(1)
+                .jsonPath("$.byCast.Luke").isEqualTo(3)
+                .jsonPath("$.byCast.Obiwan").isEqualTo(2)
+                .jsonPath("$.byCast.Leia").isEqualTo(1)
+                .jsonPath("$.computedAt").exists();
+    }
+}
@@ -0,0 +1,32 @@
+package com.bmo.reactivemoviesinfoservice.diagnostics;
+
+import com.bmo.reactivemoviesinfoservice.config.DiagnosticsProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataMongoTest
+@ActiveProfiles("test")
+@Import(QueryPlanInspector.class)
+@EnableConfigurationProperties(DiagnosticsProperties.class)
+class QueryPlanInspectorTest {
+
+    @Autowired
+    private QueryPlanInspector inspector;
+
+    @Test
+    void when_inspect_then_no_derived_query_falls_back_to_collection_scan() {
+        StepVerifier.create(inspector.inspect())
+                .thenConsumeWhile(report -> {
+                    assertFalse(report.collectionScan(), report.query() + " uses " + report.stages());
+                    return true;
+                })
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,63 @@
+package com.bmo.reactivemoviesinfoservice.metrics;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.framework.ProxyFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+class RepositoryMetricsInterceptorTest {
+
+    private SimpleMeterRegistry registry;
+
+    private MovieRepository target;
+
+    private MovieRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        target = Mockito.mock(MovieRepository.class);
+        var proxyFactory = new ProxyFactory();
+        proxyFactory.setTarget(target);
+        proxyFactory.addInterface(MovieRepository.class);
+        proxyFactory.addAdvice(new RepositoryMetricsInterceptor(registry, "MovieRepository"));
+        repository = (MovieRepository) proxyFactory.getProxy();
+    }
+
+    @Test
+    void when_repository_call_completes_then_time_it_per_method() {
+        when(target.findByYear(1983)).thenReturn(Flux.just(new MovieInfo(), new MovieInfo()));
+
+        var moviesInfo = repository.findByYear(1983);
+        assertNull(registry.find(RepositoryMetricsInterceptor.METRIC_NAME).timer());
+
+        StepVerifier.create(moviesInfo).expectNextCount(2).verifyComplete();
+
+        assertEquals(1, registry.get(RepositoryMetricsInterceptor.METRIC_NAME)
+                .tags("repository", "MovieRepository", "method", "findByYear", "outcome", "success")
+                .timer()
+                .count());
+    }
+
+    @Test
+    void when_repository_call_fails_then_record_error_outcome() {
+        when(target.findById("1SW")).thenReturn(Mono.error(new IllegalStateException("boom")));
+
+        StepVerifier.create(repository.findById("1SW")).expectError(IllegalStateException.class).verify();
+
+        assertEquals(1, registry.get(RepositoryMetricsInterceptor.METRIC_NAME)
+                .tags("method", "findById", "outcome", "error")
+                .timer()
+                .count());
+    }
+}
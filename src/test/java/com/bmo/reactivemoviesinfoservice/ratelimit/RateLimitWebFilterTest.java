@@ -0,0 +1,65 @@
+package com.bmo.reactivemoviesinfoservice.ratelimit;
+
+import com.bmo.reactivemoviesinfoservice.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitWebFilterTest {
+
+    private static final String PROXY = "10.0.0.1";
+
+    private RateLimitWebFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new RateLimitProperties();
+        properties.setRead(new RateLimitProperties.Budget(1, 1));
+        properties.setApiKeys(Set.of("known-key"));
+        properties.setTrustedProxies(Set.of(PROXY));
+        filter = new RateLimitWebFilter(properties, new ClientIdentity(properties));
+    }
+
+    @Test
+    void when_api_key_is_unknown_then_limit_by_address() {
+        assertNull(status(request("192.0.2.1").header("X-API-Key", "made-up-1")));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, status(request("192.0.2.1").header("X-API-Key", "made-up-2")));
+        assertNull(status(request("192.0.2.1").header("X-API-Key", "known-key")));
+    }
+
+    @Test
+    void when_forwarded_by_trusted_proxy_then_limit_by_forwarded_client() {
+        assertNull(status(request(PROXY).header("X-Forwarded-For", "192.0.2.1")));
+
+        assertNull(status(request(PROXY).header("X-Forwarded-For", "192.0.2.2")));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, status(request(PROXY).header("X-Forwarded-For", "198.51.100.9, 192.0.2.1")));
+    }
+
+    @Test
+    void when_forwarded_header_comes_from_untrusted_peer_then_ignore_it() {
+        assertNull(status(request("192.0.2.1").header("X-Forwarded-For", "198.51.100.1")));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, status(request("192.0.2.1").header("X-Forwarded-For", "198.51.100.2")));
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> request(String remoteAddress) {
+        return MockServerHttpRequest.get("/v1/moviesInfo")
+                .remoteAddress(new InetSocketAddress(remoteAddress, 40000));
+    }
+
+    private HttpStatus status(MockServerHttpRequest.BaseBuilder<?> request) {
+        var exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, filtered -> Mono.empty()).block();
+        return (HttpStatus) exchange.getResponse().getStatusCode();
+    }
+}
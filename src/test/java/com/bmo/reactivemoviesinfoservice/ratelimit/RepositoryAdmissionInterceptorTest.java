@@ -0,0 +1,71 @@
+package com.bmo.reactivemoviesinfoservice.ratelimit;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.exception.ServiceOverloadedException;
+import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.framework.ProxyFactory;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+class RepositoryAdmissionInterceptorTest {
+
+    private MovieRepository target;
+
+    private RepositoryAdmissionInterceptor interceptor;
+
+    private MovieRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        target = Mockito.mock(MovieRepository.class);
+        interceptor = new RepositoryAdmissionInterceptor(1);
+        var proxyFactory = new ProxyFactory();
+        proxyFactory.setTarget(target);
+        proxyFactory.addInterface(MovieRepository.class);
+        proxyFactory.addAdvice(interceptor);
+        repository = (MovieRepository) proxyFactory.getProxy();
+    }
+
+    @Test
+    void when_concurrency_limit_is_reached_then_shed_and_release_on_completion() {
+        Sinks.One<MovieInfo> pending = Sinks.one();
+        when(target.findById("1SW")).thenReturn(pending.asMono());
+        when(target.findById("2SW")).thenReturn(Sinks.<MovieInfo>one().asMono());
+
+        var inFlight = repository.findById("1SW").toFuture();
+        assertEquals(1, interceptor.inFlight());
+
+        StepVerifier.create(repository.findById("2SW"))
+                .expectError(ServiceOverloadedException.class)
+                .verify();
+
+        pending.tryEmitValue(new MovieInfo());
+        inFlight.join();
+        assertEquals(0, interceptor.inFlight());
+    }
+
+    @Test
+    void when_flux_emits_first_element_then_release_permit_while_it_is_still_drained() {
+        Sinks.Many<MovieInfo> export = Sinks.many().unicast().onBackpressureBuffer();
+        when(target.exportAfter(null, 10)).thenReturn(export.asFlux());
+
+        var received = new ArrayList<MovieInfo>();
+        var subscription = repository.exportAfter(null, 10).subscribe(received::add);
+        assertEquals(1, interceptor.inFlight());
+
+        export.tryEmitNext(new MovieInfo());
+        assertEquals(1, received.size());
+        assertEquals(0, interceptor.inFlight());
+
+        subscription.dispose();
+        assertEquals(0, interceptor.inFlight());
+    }
+}
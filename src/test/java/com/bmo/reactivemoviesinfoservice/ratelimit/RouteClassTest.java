@@ -0,0 +1,30 @@
+package com.bmo.reactivemoviesinfoservice.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RouteClassTest {
+
+    @Test
+    void when_path_is_a_stream_route_then_classify_as_stream() {
+        assertEquals(RouteClass.STREAM, RouteClass.of(MockServerHttpRequest.get("/v1/moviesInfo/stream").build()));
+        assertEquals(RouteClass.STREAM, RouteClass.of(MockServerHttpRequest.get("/v1/moviesInfo/stream/events").build()));
+        assertEquals(RouteClass.STREAM, RouteClass.of(MockServerHttpRequest.get("/v1/moviesInfo/export").build()));
+    }
+
+    @Test
+    void when_item_id_looks_like_a_stream_route_then_classify_by_method() {
+        assertEquals(RouteClass.READ, RouteClass.of(MockServerHttpRequest.get("/v1/moviesInfo/streamline").build()));
+        assertEquals(RouteClass.WRITE, RouteClass.of(MockServerHttpRequest.put("/v1/moviesInfo/streamline").build()));
+        assertEquals(RouteClass.READ, RouteClass.of(MockServerHttpRequest.get("/v1/moviesInfo/export-2023").build()));
+    }
+
+    @Test
+    void when_path_is_outside_movies_info_then_do_not_classify() {
+        assertNull(RouteClass.of(MockServerHttpRequest.get("/v1/moviesInfoArchive").build()));
+        assertNull(RouteClass.of(MockServerHttpRequest.get("/actuator/health").build()));
+    }
+}
@@ -0,0 +1,43 @@
+package com.bmo.reactivemoviesinfoservice.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void when_burst_is_spent_then_reject_until_refilled() {
+        var bucket = new TokenBucket(10, 3, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        long wait = bucket.tryAcquire(0);
+
+        assertEquals(SECOND / 10, wait);
+        assertEquals(0, bucket.tryAcquire(wait));
+    }
+
+    @Test
+    void when_idle_then_refill_no_more_than_burst() {
+        var bucket = new TokenBucket(10, 2, 0);
+
+        assertEquals(0, bucket.tryAcquire(10 * SECOND));
+        assertEquals(0, bucket.tryAcquire(10 * SECOND));
+        assertTrue(bucket.tryAcquire(10 * SECOND) > 0);
+    }
+
+    @Test
+    void when_rate_is_not_positive_then_reject_configuration() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(-1, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(Double.NaN, 1, 0));
+    }
+}
@@ -0,0 +1,173 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static com.bmo.reactivemoviesinfoservice.MovieInfoFixtures.movieInfo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InMemoryMovieRepositoryTest {
+
+    private InMemoryMovieStore store;
+
+    private InMemoryMovieRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryMovieStore(4);
+        repository = new InMemoryMovieRepository(store);
+        repository.saveAll(List.of(
+                movieInfo(null, "Batman Begins", 2005).cast(List.of("Christian Bale", "Michael Cane")).build(),
+                movieInfo(null, "The Dark Knight", 2008).cast(List.of("Christian Bale", "HeathLedger")).build(),
+                movieInfo("abc", "Dark Knight Rises", 2012).cast(List.of("Christian Bale", "Tom Hardy")).build()))
+                .blockLast();
+    }
+
+    @Test
+    void when_save_new_movie_info_then_assign_id_and_initial_version() {
+        StepVerifier.create(repository.save(movieInfo(null, "Inception", 2010).cast(List.of("Leonardo DiCaprio")).build()))
+                .assertNext(movieInfo -> {
+                    assertNotNull(movieInfo.getId());
+                    assertEquals(0L, movieInfo.getVersion());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void when_find_by_example_then_match_non_null_probe_properties() {
+        var probe = MovieInfo.builder().year(2008).build();
+        StepVerifier.create(repository.findAll(Example.of(probe)).map(MovieInfo::getName))
+                .expectNext("The Dark Knight")
+                .verifyComplete();
+
+        var prefix = MovieInfo.builder().name("dark").build();
+        var matcher = ExampleMatcher.matching().withStringMatcher(ExampleMatcher.StringMatcher.STARTING).withIgnoreCase();
+        StepVerifier.create(repository.count(Example.of(prefix, matcher)))
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(repository.findOne(Example.of(MovieInfo.builder().cast(List.of("Christian Bale")).build())))
+                .verifyComplete();
+    }
+
+    @Test
+    void when_save_with_stale_version_then_signal_optimistic_locking_failure() {
+        var current = repository.findById("abc").block();
+        repository.save(repository.findById("abc").block()).block();
+
+        StepVerifier.create(repository.save(current))
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
+    }
+
+    @Test
+    void when_year_changes_then_move_movie_info_between_year_index_entries() {
+        var movieInfo = repository.findById("abc").block();
+        movieInfo.setYear(2020);
+        repository.save(movieInfo).block();
+
+        StepVerifier.create(repository.findByYear(2012)).verifyComplete();
+        StepVerifier.create(repository.findByYear(2020).map(MovieInfo::getName))
+                .expectNext("Dark Knight Rises")
+                .verifyComplete();
+    }
+
+    @Test
+    void when_find_by_year_after_id_then_return_keyset_page() {
+        repository.save(movieInfo("abd", "Tenet", 2012).cast(List.of("John David Washington")).build()).block();
+        repository.save(movieInfo("abe", "Skyfall", 2012).cast(List.of("Daniel Craig")).build()).block();
+
+        StepVerifier.create(repository.findByYearAndIdGreaterThan(2012, "abc", PageRequest.of(0, 1, Sort.by("id")))
+                        .map(MovieInfo::getId))
+                .expectNext("abd")
+                .verifyComplete();
+    }
+
+    @Test
+    void when_find_all_sorted_by_name_then_order_by_name() {
+        StepVerifier.create(repository.findAll(Sort.by("name")).map(MovieInfo::getName))
+                .expectNext("Batman Begins", "Dark Knight Rises", "The Dark Knight")
+                .verifyComplete();
+    }
+
+    @Test
+    void when_search_ranked_then_order_name_prefix_before_word_matches_before_page_cut() {
+        StepVerifier.create(repository.searchRanked("dark", 0, 10).map(MovieInfo::getName).collectList())
+                .assertNext(names -> assertEquals(List.of("Dark Knight Rises", "The Dark Knight"), names))
+                .verifyComplete();
+        StepVerifier.create(repository.searchRanked("dark", 1, 1).map(MovieInfo::getName))
+                .expectNext("The Dark Knight")
+                .verifyComplete();
+    }
+
+    @Test
+    void when_update_fields_with_wrong_version_then_return_empty() {
+        StepVerifier.create(repository.updateFields("abc", Map.of("year", 2013), 5L)).verifyComplete();
+        StepVerifier.create(repository.updateFields("abc", Map.of("year", 2013, SearchKeys.NAME_KEYS, List.of()), 0L))
+                .assertNext(movieInfo -> {
+                    assertEquals(2013, movieInfo.getYear());
+                    assertEquals(1L, movieInfo.getVersion());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void when_find_projected_by_id_then_only_populate_requested_fields() {
+        StepVerifier.create(repository.findProjectedById("abc", List.of("version")))
+                .assertNext(movieInfo -> {
+                    assertEquals("abc", movieInfo.getId());
+                    assertEquals(0L, movieInfo.getVersion());
+                    assertNull(movieInfo.getName());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void when_insert_all_unordered_with_duplicate_then_report_failure_by_index() {
+        StepVerifier.create(repository.insertAllUnordered(List.of(
+                        movieInfo("xyz", "Dunkirk", 2017).cast(List.of("Tom Hardy")).build(),
+                        movieInfo("abc", "Duplicate", 2012).cast(List.of()).build())))
+                .assertNext(failuresByIndex -> assertEquals(List.of(1), List.copyOf(failuresByIndex.keySet())))
+                .verifyComplete();
+    }
+
+    @Test
+    void when_aggregate_stats_then_count_by_year_and_cast() {
+        StepVerifier.create(repository.aggregateStats(1))
+                .assertNext(stats -> {
+                    assertEquals(3, stats.total());
+                    assertEquals(Map.of(2005, 1L, 2008, 1L, 2012, 1L), stats.byYear());
+                    assertEquals(Map.of("Christian Bale", 3L), stats.byCast());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void when_snapshot_is_restored_then_serve_same_documents(@TempDir Path directory) throws Exception {
+        var objectMapper = new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        Path snapshot = directory.resolve("movies-info.ndjson");
+        store.writeSnapshot(snapshot, objectMapper);
+
+        var restoredStore = new InMemoryMovieStore(4);
+        assertEquals(3, restoredStore.readSnapshot(snapshot, objectMapper));
+
+        StepVerifier.create(new InMemoryMovieRepository(restoredStore).findByName("Dark Knight Rises").map(MovieInfo::getId))
+                .expectNext("abc")
+                .verifyComplete();
+    }
+}
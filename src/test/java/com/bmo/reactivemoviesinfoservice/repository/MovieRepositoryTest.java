@@ -6,6 +6,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -56,6 +58,23 @@ class MovieRepositoryTest {
         movieRepository.deleteAll().block();
     }
 
+    @Test
+    void when_searchRanked_then_rank_every_match_before_cutting_the_page() {
+        movieRepository.saveAll(List.of(
+                        MovieInfo.builder().id("0a").name("A Dark Night").year(2001).cast(List.of("Luke")).build(),
+                        MovieInfo.builder().id("0b").name("The Dark Side").year(2002).cast(List.of("Luke")).build(),
+                        MovieInfo.builder().id("0c").name("Spaceballs").year(1987).cast(List.of("Dark Helmet")).build(),
+                        MovieInfo.builder().id("zz").name("Darkest Hour").year(2017).cast(List.of("Gary")).build()))
+                .blockLast();
+
+        StepVerifier.create(movieRepository.searchRanked("dark", 0, 1).map(MovieInfo::getName))
+                .expectNext("Darkest Hour")
+                .verifyComplete();
+        StepVerifier.create(movieRepository.searchRanked("dark", 1, 3).map(MovieInfo::getName))
+                .expectNext("A Dark Night", "The Dark Side", "Spaceballs")
+                .verifyComplete();
+    }
+
     @Test
     void when_findAll_then_return_list_of_all_movies() {
         Flux<MovieInfo> movieInfoFlux = movieRepository.findAll().log();
@@ -135,4 +154,32 @@ class MovieRepositoryTest {
                 .verifyComplete();
     }
 
-}
\ No newline at end of file
+    @Test
+    void when_findByYearAndIdGreaterThan_then_return_only_following_movies() {
+        var pageable = PageRequest.of(0, 10, Sort.by("id"));
+
+        StepVerifier.create(movieRepository.findByYear(1983, pageable))
+                .assertNext(movieInfo -> assertEquals("1SW", movieInfo.getId()))
+                .verifyComplete();
+
+        StepVerifier.create(movieRepository.findByYearAndIdGreaterThan(1983, "1SW", pageable))
+                .verifyComplete();
+    }
+
+    @Test
+    void when_findByIdGreaterThan_string_id_then_continue_into_object_ids() {
+        var pageable = PageRequest.of(0, 10, Sort.by("id"));
+
+        StepVerifier.create(movieRepository.findByIdGreaterThan("1SW", pageable).map(MovieInfo::getName))
+                .expectNext("Start Wars IV", "Start Wars V")
+                .verifyComplete();
+    }
+
+    @Test
+    void when_findAllBy_with_pageable_then_limit_results() {
+        StepVerifier.create(movieRepository.findAllBy(PageRequest.of(0, 2, Sort.by("id"))))
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+}
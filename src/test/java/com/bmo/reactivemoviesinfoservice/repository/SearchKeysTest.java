@@ -0,0 +1,30 @@
+package com.bmo.reactivemoviesinfoservice.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchKeysTest {
+
+    @Test
+    void when_normalizing_then_fold_case_accents_and_whitespace() {
+        assertEquals("amelie poulain", SearchKeys.normalize("  Amélie   POULAIN "));
+    }
+
+    @Test
+    void when_deriving_name_keys_then_index_every_word_start() {
+        assertEquals(List.of("start wars vi", "wars vi", "vi"), SearchKeys.nameKeys("Start Wars VI"));
+    }
+
+    @Test
+    void when_deriving_cast_keys_then_skip_blank_and_duplicate_members() {
+        assertEquals(List.of("luke", "obiwan"), SearchKeys.castKeys(List.of("Luke", " ", "Obiwan", "LUKE")));
+    }
+
+    @Test
+    void when_building_prefix_pattern_then_escape_regex_metacharacters() {
+        assertEquals("^c\\+\\+ guide", MovieSearchRepositoryImpl.prefixPattern("c++ guide"));
+    }
+}
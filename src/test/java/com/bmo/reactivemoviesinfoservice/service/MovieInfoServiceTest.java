@@ -0,0 +1,228 @@
+package com.bmo.reactivemoviesinfoservice.service;
+
+import com.bmo.reactivemoviesinfoservice.config.BulkProperties;
+import com.bmo.reactivemoviesinfoservice.config.MovieInfoCacheProperties;
+import com.bmo.reactivemoviesinfoservice.config.PaginationProperties;
+import com.bmo.reactivemoviesinfoservice.config.TracingProperties;
+import com.bmo.reactivemoviesinfoservice.config.WriteBehindProperties;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoPatch;
+import com.bmo.reactivemoviesinfoservice.exception.VersionConflictException;
+import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import com.bmo.reactivemoviesinfoservice.tracing.ReactiveTracer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.bmo.reactivemoviesinfoservice.MovieInfoFixtures.movieInfo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MovieInfoServiceTest {
+
+    private MovieRepository repository;
+
+    private MovieInfoService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(MovieRepository.class);
+        service = new MovieInfoService(repository, Validation.buildDefaultValidatorFactory().getValidator(),
+                new ReactiveTracer(new TracingProperties()), new MovieInfoCacheProperties(), new PaginationProperties(), new BulkProperties(),
+                new MovieInfoWriteBehindBuffer(repository, new WriteBehindProperties(), new ObjectMapper()));
+    }
+
+    @Test
+    void when_getById_twice_then_load_from_repository_once() {
+        when(repository.findById("1SW")).thenReturn(Mono.just(movieInfo("1SW", "Start Wars VI", 1983).build()));
+
+        StepVerifier.create(service.getMovieInfoById("1SW"))
+                .assertNext(movieInfo -> assertEquals("Start Wars VI", movieInfo.getName()))
+                .verifyComplete();
+        StepVerifier.create(service.getMovieInfoById("1SW"))
+                .assertNext(movieInfo -> assertEquals("Start Wars VI", movieInfo.getName()))
+                .verifyComplete();
+
+        verify(repository, times(1)).findById("1SW");
+    }
+
+    @Test
+    void when_concurrent_misses_for_same_id_then_coalesce_into_one_load() {
+        Sinks.One<MovieInfo> pendingLoad = Sinks.one();
+        when(repository.findById("1SW")).thenReturn(pendingLoad.asMono());
+
+        var first = service.getMovieInfoById("1SW").toFuture();
+        var second = service.getMovieInfoById("1SW").toFuture();
+        pendingLoad.tryEmitValue(movieInfo("1SW", "Start Wars VI", 1983).build());
+
+        assertEquals("Start Wars VI", first.join().getName());
+        assertEquals("Start Wars VI", second.join().getName());
+        verify(repository, times(1)).findById("1SW");
+    }
+
+    @Test
+    void when_getById_for_missing_id_then_return_empty_without_caching() {
+        when(repository.findById("12SW")).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.getMovieInfoById("12SW")).verifyComplete();
+        StepVerifier.create(service.getMovieInfoById("12SW")).verifyComplete();
+
+        verify(repository, times(2)).findById("12SW");
+    }
+
+    @Test
+    void when_update_then_refresh_cached_entry() {
+        when(repository.findById("1SW")).thenReturn(Mono.just(movieInfo("1SW", "Start Wars VI", 1983).build()));
+        when(repository.updateFields(eq("1SW"), anyMap(), isNull())).thenReturn(Mono.just(movieInfo("1SW", "Return of the Jedi", 1983).build()));
+
+        service.getMovieInfoById("1SW").block();
+        service.updateMovieInfo("1SW", movieInfo("1SW", "Return of the Jedi", 1983).build()).block();
+
+        StepVerifier.create(service.getMovieInfoById("1SW"))
+                .assertNext(movieInfo -> assertEquals("Return of the Jedi", movieInfo.getName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void when_patch_is_empty_then_return_current_without_version_bump() {
+        var current = movieInfo("1SW", "Start Wars VI", 1983).build();
+        current.setVersion(3L);
+        when(repository.findById("1SW")).thenReturn(Mono.just(current));
+
+        StepVerifier.create(service.patchMovieInfo("1SW", new MovieInfoPatch(null, null, null, null), 3L))
+                .assertNext(movieInfo -> assertEquals(3L, movieInfo.getVersion()))
+                .verifyComplete();
+        StepVerifier.create(service.patchMovieInfo("1SW", new MovieInfoPatch(null, null, null, null), 2L))
+                .expectError(VersionConflictException.class)
+                .verify();
+
+        verify(repository, never()).updateFields(anyString(), anyMap(), any());
+    }
+
+    @Test
+    void when_version_is_requested_then_read_it_from_the_repository_not_the_cache() {
+        var cached = movieInfo("1SW", "Start Wars VI", 1983).build();
+        cached.setVersion(1L);
+        var current = movieInfo("1SW", "Return of the Jedi", 1983).build();
+        current.setVersion(2L);
+        when(repository.findById("1SW")).thenReturn(Mono.just(cached));
+        when(repository.findProjectedById(eq("1SW"), anyList())).thenReturn(Mono.just(current));
+
+        service.getMovieInfoById("1SW").block();
+
+        StepVerifier.create(service.getMovieInfoVersion("1SW"))
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    @Test
+    void when_evicted_then_reload_from_repository() {
+        when(repository.findById("1SW")).thenReturn(Mono.just(movieInfo("1SW", "Start Wars VI", 1983).build()));
+
+        service.getMovieInfoById("1SW").block();
+        service.evict("1SW");
+        service.getMovieInfoById("1SW").block();
+
+        verify(repository, times(2)).findById("1SW");
+    }
+
+    @Test
+    void when_delete_then_invalidate_cached_entry() {
+        when(repository.findById("1SW")).thenReturn(Mono.just(movieInfo("1SW", "Start Wars VI", 1983).build()));
+        when(repository.removeById("1SW")).thenReturn(Mono.just(1L));
+
+        service.getMovieInfoById("1SW").block();
+        service.deleteMovieInfo("1SW").block();
+        service.getMovieInfoById("1SW").block();
+
+        verify(repository, times(2)).findById("1SW");
+    }
+
+    @Test
+    void when_concurrent_identical_list_queries_then_share_one_repository_query() {
+        Sinks.One<List<MovieInfo>> pendingQuery = Sinks.one();
+        when(repository.findByYear(eq(1983), isA(Pageable.class)))
+                .thenReturn(pendingQuery.asMono().flatMapIterable(moviesInfo -> moviesInfo));
+
+        var first = service.getMoviesInfoPage(1983, null, null).toFuture();
+        var second = service.getMoviesInfoPage(1983, null, null).toFuture();
+        pendingQuery.tryEmitValue(List.of(movieInfo("1SW", "Start Wars VI", 1983).build()));
+
+        assertEquals(1, first.join().items().size());
+        assertEquals(1, second.join().items().size());
+        verify(repository, times(1)).findByYear(eq(1983), isA(Pageable.class));
+    }
+
+    @Test
+    void when_movie_info_is_written_then_drop_cached_list_pages() {
+        when(repository.findByYear(eq(1983), isA(Pageable.class))).thenReturn(Flux.just(movieInfo("1SW", "Start Wars VI", 1983).build()));
+        when(repository.save(isA(MovieInfo.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        service.getMoviesInfoPage(1983, null, null).block();
+        service.getMoviesInfoPage(1983, null, null).block();
+        service.createMovieInfo(movieInfo("1SW", "Return of the Jedi", 1983).build()).block();
+        service.getMoviesInfoPage(1983, null, null).block();
+
+        verify(repository, times(2)).findByYear(eq(1983), isA(Pageable.class));
+    }
+
+    @Test
+    void when_bulk_create_then_report_per_item_results_and_notify_accepted() {
+        var duplicate = movieInfo("1SW", "Start Wars VI", 1983).build();
+        var valid = MovieInfo.builder()
+                .name("Start Wars IV")
+                .year(1977)
+                .releaseDate(LocalDate.parse("1977-01-01"))
+                .build();
+        var invalid = MovieInfo.builder()
+                .name("")
+                .year(-1)
+                .releaseDate(LocalDate.parse("1977-01-01"))
+                .build();
+        when(repository.insertAllUnordered(anyList())).thenReturn(Mono.just(Map.of(1, "duplicate key")));
+        List<MovieInfo> accepted = new ArrayList<>();
+
+        StepVerifier.create(service.bulkCreateMovieInfo(Flux.just(valid, invalid, duplicate), accepted::add))
+                .assertNext(result -> {
+                    assertEquals(0, result.index());
+                    assertNotNull(result.id());
+                    assertNull(result.error());
+                })
+                .assertNext(result -> {
+                    assertEquals(1, result.index());
+                    assertEquals(List.of("name must not be blank", "year must be a positive number"), result.error().errors());
+                })
+                .assertNext(result -> {
+                    assertEquals(2, result.index());
+                    assertEquals("1SW", result.id());
+                    assertEquals(List.of("duplicate key"), result.error().errors());
+                })
+                .verifyComplete();
+
+        assertEquals(List.of(valid), accepted);
+    }
+}
@@ -0,0 +1,59 @@
+package com.bmo.reactivemoviesinfoservice.service;
+
+import com.bmo.reactivemoviesinfoservice.config.StatsProperties;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoStats;
+import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MovieInfoStatsServiceTest {
+
+    private MovieRepository repository;
+
+    private StatsProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(MovieRepository.class);
+        properties = new StatsProperties();
+        properties.setRefreshInterval(Duration.ZERO);
+        properties.setFailureBackoff(Duration.ofHours(1));
+    }
+
+    @Test
+    void when_refresh_fails_then_serve_last_good_snapshot_and_back_off() {
+        var snapshot = new MovieInfoStats(3, Map.of(2005, 3L), Map.of("Michael Cane", 3L), Instant.now());
+        when(repository.aggregateStats(properties.getCastLimit()))
+                .thenReturn(Mono.just(snapshot), Mono.error(new IllegalStateException("boom")));
+        var service = new MovieInfoStatsService(repository, properties);
+
+        StepVerifier.create(service.getStats()).expectNext(snapshot).verifyComplete();
+        StepVerifier.create(service.getStats()).expectNext(snapshot).verifyComplete();
+        StepVerifier.create(service.getStats()).expectNext(snapshot).verifyComplete();
+
+        verify(repository, times(2)).aggregateStats(properties.getCastLimit());
+    }
+
+    @Test
+    void when_first_refresh_fails_then_propagate_error_and_back_off() {
+        when(repository.aggregateStats(properties.getCastLimit()))
+                .thenReturn(Mono.error(new IllegalStateException("boom")));
+        var service = new MovieInfoStatsService(repository, properties);
+
+        StepVerifier.create(service.getStats()).expectError(IllegalStateException.class).verify();
+        StepVerifier.create(service.getStats()).expectError(IllegalStateException.class).verify();
+
+        verify(repository, times(1)).aggregateStats(properties.getCastLimit());
+    }
+}
@@ -0,0 +1,176 @@
+package com.bmo.reactivemoviesinfoservice.service;
+
+import com.bmo.reactivemoviesinfoservice.config.WriteBehindProperties;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.repository.MovieRepository;
+import com.bmo.reactivemoviesinfoservice.repository.VersionedUpdate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static com.bmo.reactivemoviesinfoservice.MovieInfoFixtures.movieInfo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MovieInfoWriteBehindBufferTest {
+
+    @TempDir
+    Path directory;
+
+    private MovieRepository repository;
+
+    private WriteBehindProperties properties;
+
+    private ObjectMapper objectMapper;
+
+    private MovieInfoWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(MovieRepository.class);
+        when(repository.updateAllUnordered(anyList())).thenReturn(Mono.just(Set.of()));
+        properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setJournalPath(directory.resolve("updates.journal"));
+        properties.setFlushInterval(Duration.ofHours(1));
+        objectMapper = new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        buffer = new MovieInfoWriteBehindBuffer(repository, properties, objectMapper);
+        buffer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.stop();
+    }
+
+    @Test
+    void when_updates_for_same_id_are_pending_then_coalesce_and_serve_latest() {
+        var current = movieInfo("1SW", "Start Wars VI", 1983).version(0L).build();
+        buffer.submit(current, movieInfo("1SW", "Return of the Jedi", 1983).build()).block();
+        var acknowledged = buffer.submit(current, movieInfo("1SW", "Return of the Jedi (Special Edition)", 1983).build()).block();
+
+        assertEquals(2L, acknowledged.getVersion());
+        assertEquals("Return of the Jedi (Special Edition)", buffer.pending("1SW").getName());
+        verify(repository, never()).updateAllUnordered(anyList());
+
+        buffer.flushAll().block();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<VersionedUpdate>> flushed = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(1)).updateAllUnordered(flushed.capture());
+        assertEquals(List.of("Return of the Jedi (Special Edition)"), flushed.getValue().stream().map(update -> update.movieInfo().getName()).toList());
+        assertEquals(0L, flushed.getValue().get(0).expectedVersion());
+        assertNull(buffer.pending("1SW"));
+    }
+
+    @Test
+    void when_flush_conflicts_then_drop_update_count_it_and_report_it() {
+        var registry = new SimpleMeterRegistry();
+        buffer.bindTo(registry);
+        var dropped = new ArrayList<MovieInfo>();
+        buffer.onConflict(dropped::add);
+        when(repository.updateAllUnordered(anyList())).thenReturn(Mono.just(Set.of("1SW")));
+        buffer.submit(movieInfo("1SW", "Start Wars VI", 1983).version(0L).build(), movieInfo("1SW", "Return of the Jedi", 1983).build()).block();
+
+        buffer.flushAll().block();
+
+        assertNull(buffer.pending("1SW"));
+        assertEquals(1.0, registry.get("movies.info.write.behind.conflicts").functionCounter().count());
+        assertEquals(0.0, registry.get("movies.info.write.behind.flushed").functionCounter().count());
+        assertEquals(1, dropped.size());
+        assertEquals("1SW", dropped.get(0).getId());
+        assertEquals(1L, dropped.get(0).getVersion());
+    }
+
+    @Test
+    void when_update_is_coalesced_during_flush_then_rebase_it_on_flushed_version() {
+        var current = movieInfo("1SW", "Start Wars VI", 1983).version(0L).build();
+        when(repository.updateAllUnordered(anyList())).thenAnswer(invocation -> buffer.submit(current, movieInfo("1SW", "Return of the Jedi (Special Edition)", 1983).build())
+                .thenReturn(Set.<String>of()));
+        buffer.submit(current, movieInfo("1SW", "Return of the Jedi", 1983).build()).block();
+
+        buffer.flush("1SW").block();
+
+        when(repository.updateAllUnordered(anyList())).thenReturn(Mono.just(Set.of()));
+        buffer.flush("1SW").block();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<VersionedUpdate>> flushed = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(2)).updateAllUnordered(flushed.capture());
+        VersionedUpdate second = flushed.getAllValues().get(1).get(0);
+        assertEquals("Return of the Jedi (Special Edition)", second.movieInfo().getName());
+        assertEquals(2L, second.movieInfo().getVersion());
+        assertEquals(1L, second.expectedVersion());
+    }
+
+    @Test
+    void when_flushed_then_compact_journal() throws Exception {
+        buffer.submit(movieInfo("1SW", "Start Wars VI", 1983).version(0L).build(), movieInfo("1SW", "Return of the Jedi", 1983).build()).block();
+        assertEquals(1, Files.readAllLines(properties.getJournalPath()).size());
+
+        buffer.flushAll().block();
+
+        assertEquals(0, Files.size(properties.getJournalPath()));
+    }
+
+    @Test
+    void when_flushed_while_other_updates_pend_then_rewrite_journal_from_live_entries() throws Exception {
+        buffer.submit(movieInfo("1SW", "Start Wars VI", 1983).version(0L).build(), movieInfo("1SW", "Return of the Jedi", 1983).build()).block();
+        buffer.submit(movieInfo("1SW", "Start Wars VI", 1983).version(0L).build(), movieInfo("1SW", "Return of the Jedi (Special Edition)", 1983).build()).block();
+        buffer.submit(movieInfo("1SW", "Start Wars V", 1983).version(0L).build().toBuilder().id("2SW").build(), movieInfo("1SW", "The Empire Strikes Back", 1983).build()).block();
+        assertEquals(3, Files.readAllLines(properties.getJournalPath()).size());
+
+        buffer.flush("1SW").block();
+
+        List<String> lines = Files.readAllLines(properties.getJournalPath());
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("The Empire Strikes Back"));
+        when(repository.updateAllUnordered(anyList())).thenReturn(Mono.error(new IllegalStateException("mongo is down")));
+        buffer.stop();
+        var restarted = new MovieInfoWriteBehindBuffer(repository, properties, objectMapper);
+        restarted.start();
+        try {
+            assertNull(restarted.pending("1SW"));
+            assertEquals("The Empire Strikes Back", restarted.pending("2SW").getName());
+        } finally {
+            when(repository.updateAllUnordered(anyList())).thenReturn(Mono.just(Set.of()));
+            restarted.stop();
+        }
+    }
+
+    @Test
+    void when_restarted_with_unflushed_journal_then_replay_pending_updates() {
+        when(repository.updateAllUnordered(anyList())).thenReturn(Mono.error(new IllegalStateException("mongo is down")));
+        buffer.submit(movieInfo("1SW", "Start Wars VI", 1983).version(0L).build(), movieInfo("1SW", "Return of the Jedi", 1983).build()).block();
+        buffer.stop();
+
+        var restarted = new MovieInfoWriteBehindBuffer(repository, properties, objectMapper);
+        restarted.start();
+        try {
+            assertEquals("Return of the Jedi", restarted.pending("1SW").getName());
+            assertEquals(1L, restarted.pending("1SW").getVersion());
+        } finally {
+            when(repository.updateAllUnordered(anyList())).thenReturn(Mono.just(Set.of()));
+            restarted.stop();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.bmo.reactivemoviesinfoservice.stream;
+
+import com.bmo.reactivemoviesinfoservice.config.ChangeStreamProperties;
+import com.bmo.reactivemoviesinfoservice.config.StreamProperties;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfo;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoEvent;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoEventType;
+import com.bmo.reactivemoviesinfoservice.service.MovieInfoService;
+import com.mongodb.MongoCommandException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MovieInfoChangeStreamListenerTest {
+
+    private static final String COLLECTION = "movieInfo";
+
+    private static final BsonDocument PERSISTED_TOKEN = BsonDocument.parse("{\"_data\": \"8263\"}");
+
+    private static final BsonDocument EVENT_TOKEN = BsonDocument.parse("{\"_data\": \"8264\"}");
+
+    private ReactiveMongoOperations mongoOperations;
+
+    private MovieInfoService service;
+
+    private ChangeStreamProperties properties;
+
+    private MovieInfoStreamBuffer streamBuffer;
+
+    private MovieInfoChangeStreamListener listener;
+
+    @BeforeEach
+    void setUp() {
+        mongoOperations = Mockito.mock(ReactiveMongoOperations.class);
+        service = Mockito.mock(MovieInfoService.class);
+        properties = new ChangeStreamProperties();
+        properties.setNodeId("node-1");
+        properties.setCheckpointInterval(Duration.ofHours(1));
+        properties.setRetryBackoff(Duration.ofMillis(10));
+        properties.setMaxRetryBackoff(Duration.ofMillis(10));
+        streamBuffer = new MovieInfoStreamBuffer(new StreamProperties());
+        when(mongoOperations.getCollectionName(MovieInfo.class)).thenReturn(COLLECTION);
+        when(mongoOperations.findById("node-1", Document.class, properties.getResumeTokenCollection()))
+                .thenReturn(Mono.just(new Document("token", PERSISTED_TOKEN.toJson())));
+        when(mongoOperations.upsert(any(Query.class), any(Update.class), anyString()))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        listener = new MovieInfoChangeStreamListener(mongoOperations, streamBuffer, service, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.stop();
+    }
+
+    @Test
+    void when_node_id_is_not_set_then_refuse_to_start() {
+        properties.setNodeId(" ");
+
+        assertThrows(IllegalStateException.class,
+                () -> new MovieInfoChangeStreamListener(mongoOperations, streamBuffer, service, properties));
+    }
+
+    @Test
+    void when_change_arrives_then_publish_it_evict_it_and_checkpoint_its_token_on_stop() {
+        when(mongoOperations.changeStream(eq(COLLECTION), any(ChangeStreamOptions.class), eq(MovieInfo.class)))
+                .thenReturn(Flux.just(insertEvent()).concatWith(Flux.never()));
+
+        listener.start();
+
+        verify(service, timeout(5000)).evict("1SW");
+        assertEquals(List.of(MovieInfoEventType.INSERT), eventTypes());
+        listener.stop();
+        ArgumentCaptor<Update> checkpoint = ArgumentCaptor.forClass(Update.class);
+        verify(mongoOperations).upsert(any(Query.class), checkpoint.capture(), eq(properties.getResumeTokenCollection()));
+        assertEquals(EVENT_TOKEN.toJson(), ((Document) checkpoint.getValue().getUpdateObject().get("$set")).get("token"));
+    }
+
+    @Test
+    void when_stream_fails_transiently_then_resume_from_persisted_token() {
+        when(mongoOperations.changeStream(eq(COLLECTION), any(ChangeStreamOptions.class), eq(MovieInfo.class)))
+                .thenReturn(Flux.error(new UncategorizedMongoDbException("connection reset", null)),
+                        Flux.just(insertEvent()).concatWith(Flux.never()));
+
+        listener.start();
+
+        verify(service, timeout(5000)).evict("1SW");
+        List<ChangeStreamOptions> options = watchedOptions(2);
+        assertEquals(PERSISTED_TOKEN, options.get(0).getResumeToken().orElseThrow());
+        assertEquals(PERSISTED_TOKEN, options.get(1).getResumeToken().orElseThrow());
+        assertEquals(List.of(MovieInfoEventType.INSERT), eventTypes());
+    }
+
+    @Test
+    void when_history_is_lost_then_restart_from_now_clear_persisted_token_and_signal_gap() {
+        when(mongoOperations.remove(any(Query.class), eq(properties.getResumeTokenCollection())))
+                .thenReturn(Mono.just(DeleteResult.acknowledged(1)));
+        when(mongoOperations.changeStream(eq(COLLECTION), any(ChangeStreamOptions.class), eq(MovieInfo.class)))
+                .thenReturn(Flux.error(historyLost()), Flux.just(insertEvent()).concatWith(Flux.never()));
+
+        listener.start();
+
+        verify(service, timeout(5000)).evict("1SW");
+        List<ChangeStreamOptions> options = watchedOptions(2);
+        assertEquals(PERSISTED_TOKEN, options.get(0).getResumeToken().orElseThrow());
+        assertTrue(options.get(1).getResumeToken().isEmpty());
+        verify(service).invalidateCache();
+        verify(mongoOperations).remove(any(Query.class), eq(properties.getResumeTokenCollection()));
+        assertEquals(List.of(MovieInfoEventType.GAP, MovieInfoEventType.INSERT), eventTypes());
+    }
+
+    private List<ChangeStreamOptions> watchedOptions(int times) {
+        ArgumentCaptor<ChangeStreamOptions> options = ArgumentCaptor.forClass(ChangeStreamOptions.class);
+        verify(mongoOperations, times(times)).changeStream(eq(COLLECTION), options.capture(), eq(MovieInfo.class));
+        return options.getAllValues();
+    }
+
+    private List<MovieInfoEventType> eventTypes() {
+        return streamBuffer.events(null, null)
+                .take(Duration.ofMillis(200))
+                .map(MovieInfoEvent::type)
+                .collectList()
+                .block();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChangeStreamEvent<MovieInfo> insertEvent() {
+        ChangeStreamEvent<MovieInfo> event = Mockito.mock(ChangeStreamEvent.class);
+        when(event.getOperationType()).thenReturn(OperationType.INSERT);
+        when(event.getBody()).thenReturn(MovieInfo.builder().id("1SW").name("Start Wars VI").year(1983).build());
+        when(event.getResumeToken()).thenReturn(EVENT_TOKEN);
+        return event;
+    }
+
+    private static UncategorizedMongoDbException historyLost() {
+        BsonDocument response = new BsonDocument("ok", new BsonInt32(0))
+                .append("code", new BsonInt32(286))
+                .append("errmsg", new BsonString("Resume of change stream was not possible, as the resume point may no longer be in the oplog"));
+        return new UncategorizedMongoDbException("change stream history lost", new MongoCommandException(response, new ServerAddress()));
+    }
+}
@@ -0,0 +1,267 @@
+package com.bmo.reactivemoviesinfoservice.stream;
+
+import com.bmo.reactivemoviesinfoservice.config.StreamProperties;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoEvent;
+import com.bmo.reactivemoviesinfoservice.domain.MovieInfoEventType;
+import com.bmo.reactivemoviesinfoservice.exception.SlowConsumerException;
+import com.bmo.reactivemoviesinfoservice.exception.StreamPositionEvictedException;
+import com.bmo.reactivemoviesinfoservice.exception.UnknownStreamPositionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.bmo.reactivemoviesinfoservice.MovieInfoFixtures.movieInfo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovieInfoStreamBufferTest {
+
+    private StreamProperties properties;
+
+    private MutableClock clock;
+
+    private MovieInfoStreamBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StreamProperties();
+        properties.setMaxSize(2);
+        properties.setMaxAge(Duration.ofMinutes(1));
+        properties.setMaxBytes(DataSize.ofKilobytes(64));
+        clock = new MutableClock(Instant.parse("2023-10-01T00:00:00Z"));
+        buffer = new MovieInfoStreamBuffer(properties, clock);
+    }
+
+    @Test
+    void when_buffer_exceeds_max_size_then_evict_oldest() {
+        buffer.publish(MovieInfoEventType.INSERT, movieInfo("1", "Start Wars 1", 1977).build());
+        buffer.publish(MovieInfoEventType.INSERT, movieInfo("2", "Start Wars 2", 1977).build());
+        buffer.publish(MovieInfoEventType.INSERT, movieInfo("3", "Start Wars 3", 1977).build());
+
+        assertEquals(2, buffer.size());
+        assertEquals(1, buffer.evictionCount(MovieInfoStreamBuffer.EvictionReason.COUNT));
+
+        StepVerifier.create(buffer.events(null, null).map(MovieInfoEvent::sequence))
+                .expectNext(2L, 3L)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void when_local_sequence_was_not_issued_by_this_node_then_reject_it() {
+        buffer.publish(MovieInfoEventType.INSERT, movieInfo("1", "Start Wars 1", 1977).build());
+
+        StepVerifier.create(buffer.events(5L, null))
+                .expectError(UnknownStreamPositionException.class)
+                .verify();
+    }
+
+    @Test
+    void when_sequences_come_from_cluster_time_then_resume_on_any_replica() {
+        properties.setSource(StreamProperties.Source.CHANGE_STREAM);
+        var replica = new MovieInfoStreamBuffer(properties, clock);
+        buffer.publish(MovieInfoEventType.INSERT, movieInfo("1", "Start Wars 1", 1977).build(), 100L);
+        buffer.publish(MovieInfoEventType.INSERT, movieInfo("2", "Start Wars 2", 1977).build(), 200L);
+        replica.publish(MovieInfoEventType.INSERT, movieInfo("1", "Start Wars 1", 1977).build(), 100L);
+        replica.publish(MovieInfoEventType.INSERT, movieInfo("2", "Start Wars 2", 1977).build(), 200L);
+
+        long resumeFrom = buffer.events(null, null).take(1).blockLast().sequence() + 1;
+
+        StepVerifier.create(replica.events(resumeFrom, null).map(event -> event.movieInfo().getId()))
+                .expectNext("2")
+                .thenCancel()
+                .verify();
+        StepVerifier.create(replica.events(50L, null))
+                .expectError(StreamPositionEvictedException.class)
+                .verify();
+    }
+
+    @Test
+    void when_subscriber_is_slow_then_publish_does_not_hold_the_buffer_monitor() throws Exception {
+        var received = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var subscription = buffer.events(null, null).subscribe(event -> {
+            received.countDown();
+            awaitUninterruptibly(release);
+        });
+        var publisher = CompletableFuture.runAsync(() -> buffer.publish(MovieInfoEventType.INSERT, movieInfo("1", "Start Wars 1", 1977).build()));
+        try {
+            assertTrue(received.await(5, TimeUnit.SECONDS));
+
+            assertEquals(1, CompletableFuture.supplyAsync(buffer::subscriberCount).get(5, TimeUnit.SECONDS));
+            assertEquals(1, CompletableFuture.supplyAsync(buffer::size).get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            publisher.get(5, TimeUnit.SECONDS);
+            subscription.dispose();
+        }
+    }
+
+    @Test
+    void when_entries_are_older_than_max_age_then_evict_them() {
+        buffer.publish(MovieInfoEventType.INSERT, movieInfo("1", "Start Wars 1", 1977).build());
+        clock.advance(Duration.ofMinutes(2));
+
+        assertEquals(0, buffer.size());
+        assertEquals(1, buffer.evictionCount(MovieInfoStreamBuffer.EvictionReason.AGE));
+    }
+
+    @Test
+    void when_buffer_exceeds_byte_budget_then_evict_oldest() {
+        properties.setMaxBytes(DataSize.ofBytes(300));
+
+        buffer.publish(MovieInfoEventType.INSERT, movieInfo("1", "Start Wars 1", 1977).build());
+        buffer.publish(MovieInfoEventType.INSERT, movieInfo("2", "Start Wars 2", 1977).build());
+
+        assertEquals(1, buffer.size());
+        assertEquals(1, buffer.evictionCount(MovieInfoStreamBuffer.EvictionReason.BYTES));
+    }
+
+    @Test
+    void when_resuming_from_sequence_then_replay_from_there_and_continue_live() {
+        buffer.publish(MovieInfoEventType.INSERT, movieInfo("1", "Start Wars 1", 1977).build());
+        buffer.publish(MovieInfoEventType.INSERT, movieInfo("2", "Start Wars 2", 1977).build());
+
+        StepVerifier.create(buffer.events(2L, null).map(event -> event.movieInfo().getId()))
+                .expectNext("2")
+                .then(() -> buffer.publish(MovieInfoEventType.INSERT, movieInfo("3", "Start Wars 3", 1977).build()))
+                .expectNext("3")
+                .thenCancel()
+                .verify();
+
+        assertEquals(0, buffer.subscriberCount());
+    }
+
+    @Test
+    void when_resuming_from_evicted_sequence_then_signal_error() {
+        buffer.publish(MovieInfoEventType.INSERT, movieInfo("1", "Start Wars 1", 1977).build());
+        buffer.publish(MovieInfoEventType.INSERT, movieInfo("2", "Start Wars 2", 1977).build());
+        buffer.publish(MovieInfoEventType.INSERT, movieInfo("3", "Start Wars 3", 1977).build());
+
+        StepVerifier.create(buffer.events(1L, null))
+                .expectError(StreamPositionEvictedException.class)
+                .verify();
+    }
+
+    @Test
+    void when_resuming_from_evicted_timestamp_then_signal_error() {
+        Instant start = clock.instant();
+        buffer.publish(MovieInfoEventType.INSERT, movieInfo("1", "Start Wars 1", 1977).build());
+        clock.advance(Duration.ofMinutes(2));
+        buffer.publish(MovieInfoEventType.INSERT, movieInfo("2", "Start Wars 2", 1977).build());
+
+        StepVerifier.create(buffer.events(null, start))
+                .expectError(StreamPositionEvictedException.class)
+                .verify();
+
+        StepVerifier.create(buffer.events(null, clock.instant()).map(event -> event.movieInfo().getId()))
+                .expectNext("2")
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void when_source_is_change_stream_then_ignore_local_publishes() {
+        buffer.publishLocal(MovieInfoEventType.UPDATE, movieInfo("1", "Start Wars 1", 1977).build());
+        properties.setSource(StreamProperties.Source.CHANGE_STREAM);
+        buffer.publishLocal(MovieInfoEventType.DELETE, movieInfo("2", "Start Wars 2", 1977).build());
+
+        StepVerifier.create(buffer.events(null, null))
+                .assertNext(event -> {
+                    assertEquals(MovieInfoEventType.UPDATE, event.type());
+                    assertEquals("1", event.movieInfo().getId());
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void when_subscriber_is_slow_then_drop_oldest_queued_events() {
+        properties.setMaxSize(100);
+        properties.setSubscriberBufferSize(2);
+        List<Long> received = new ArrayList<>();
+
+        StepVerifier.create(buffer.events(null, null).map(MovieInfoEvent::sequence).doOnNext(received::add), 0)
+                .then(() -> publishAll(10))
+                .thenRequest(Long.MAX_VALUE)
+                .thenConsumeWhile(sequence -> sequence < 10)
+                .expectNext(10L)
+                .thenCancel()
+                .verify();
+
+        assertEquals(10L, received.get(received.size() - 1));
+        assertTrue(received.size() < 10);
+        assertEquals(10 - received.size(), buffer.droppedCount());
+    }
+
+    @Test
+    void when_subscriber_is_slow_and_policy_is_disconnect_then_signal_error() {
+        properties.setMaxSize(100);
+        properties.setSubscriberBufferSize(2);
+        properties.setOverflowPolicy(StreamProperties.OverflowPolicy.DISCONNECT);
+
+        StepVerifier.create(buffer.events(null, null), 0)
+                .then(() -> publishAll(10))
+                .thenRequest(Long.MAX_VALUE)
+                .thenConsumeWhile(event -> true)
+                .expectError(SlowConsumerException.class)
+                .verify();
+
+        assertEquals(1, buffer.disconnectCount());
+        assertEquals(0, buffer.subscriberCount());
+    }
+
+    private void publishAll(int count) {
+        for (int i = 1; i <= count; i++) {
+            buffer.publish(MovieInfoEventType.INSERT, movieInfo(String.valueOf(i), "Start Wars " + String.valueOf(i), 1977).build());
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
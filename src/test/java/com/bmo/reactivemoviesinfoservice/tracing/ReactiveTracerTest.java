@@ -0,0 +1,85 @@
+package com.bmo.reactivemoviesinfoservice.tracing;
+
+import com.bmo.reactivemoviesinfoservice.config.TracingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ReactiveTracerTest {
+
+    private TracingProperties properties;
+
+    private ReactiveTracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TracingProperties();
+        properties.setSampleRate(0);
+        tracer = new ReactiveTracer(properties);
+    }
+
+    @Test
+    void when_tracing_disabled_then_return_source_untouched() {
+        properties.setEnabled(false);
+        Flux<Integer> source = Flux.just(1, 2, 3);
+
+        assertSame(source, tracer.trace("flux", source));
+        assertNull(tracer.modeFor(MockServerHttpRequest.get("/v1/moviesInfo").header("X-Debug-Trace", "true").build()));
+    }
+
+    @Test
+    void when_debug_header_carries_token_then_trace_request_fully() {
+        properties.setDebugToken("s3cret");
+        tracer = new ReactiveTracer(properties);
+
+        assertEquals(TraceMode.FULL,
+                tracer.modeFor(MockServerHttpRequest.get("/v1/moviesInfo").header("X-Debug-Trace", "s3cret").build()));
+        assertNull(tracer.modeFor(MockServerHttpRequest.get("/v1/moviesInfo").header("X-Debug-Trace", "true").build()));
+        assertNull(tracer.modeFor(MockServerHttpRequest.get("/v1/moviesInfo").build()));
+    }
+
+    @Test
+    void when_no_debug_token_is_configured_then_ignore_debug_header() {
+        assertNull(tracer.modeFor(MockServerHttpRequest.get("/v1/moviesInfo").header("X-Debug-Trace", "true").build()));
+    }
+
+    @Test
+    void when_debug_trace_budget_is_spent_then_stop_tracing_fully() {
+        properties.setDebugToken("s3cret");
+        properties.setDebugTracesPerSecond(0.001);
+        properties.setDebugTraceBurst(2);
+        tracer = new ReactiveTracer(properties);
+        var request = MockServerHttpRequest.get("/v1/moviesInfo").header("X-Debug-Trace", "s3cret").build();
+
+        assertEquals(TraceMode.FULL, tracer.modeFor(request));
+        assertEquals(TraceMode.FULL, tracer.modeFor(request));
+        assertNull(tracer.modeFor(request));
+    }
+
+    @Test
+    void when_sample_rate_is_one_then_sample_every_request() {
+        properties.setSampleRate(1);
+
+        assertEquals(TraceMode.SAMPLED, tracer.modeFor(MockServerHttpRequest.get("/v1/moviesInfo").build()));
+    }
+
+    @Test
+    void when_traced_then_pass_signals_through() {
+        StepVerifier.create(tracer.trace("flux", Flux.just(1, 2, 3))
+                        .contextWrite(context -> context.put(ReactiveTracer.TRACE_MODE_KEY, TraceMode.FULL)))
+                .expectNext(1, 2, 3)
+                .verifyComplete();
+
+        StepVerifier.create(tracer.trace("mono", Mono.error(new IllegalStateException("boom")))
+                        .contextWrite(context -> context.put(ReactiveTracer.TRACE_MODE_KEY, TraceMode.SAMPLED)))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+}
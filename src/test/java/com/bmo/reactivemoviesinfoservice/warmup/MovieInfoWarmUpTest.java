@@ -0,0 +1,74 @@
+package com.bmo.reactivemoviesinfoservice.warmup;
+
+import com.bmo.reactivemoviesinfoservice.config.BulkProperties;
+import com.bmo.reactivemoviesinfoservice.config.HttpCacheProperties;
+import com.bmo.reactivemoviesinfoservice.config.IdempotencyProperties;
+import com.bmo.reactivemoviesinfoservice.config.MovieInfoCacheProperties;
+import com.bmo.reactivemoviesinfoservice.config.PaginationProperties;
+import com.bmo.reactivemoviesinfoservice.config.RateLimitProperties;
+import com.bmo.reactivemoviesinfoservice.config.SearchProperties;
+import com.bmo.reactivemoviesinfoservice.config.TracingProperties;
+import com.bmo.reactivemoviesinfoservice.config.WarmUpProperties;
+import com.bmo.reactivemoviesinfoservice.config.WriteBehindProperties;
+import com.bmo.reactivemoviesinfoservice.ratelimit.ClientIdentity;
+import com.bmo.reactivemoviesinfoservice.repository.InMemoryMovieRepository;
+import com.bmo.reactivemoviesinfoservice.repository.InMemoryMovieStore;
+import com.bmo.reactivemoviesinfoservice.service.MovieInfoSearchService;
+import com.bmo.reactivemoviesinfoservice.service.MovieInfoService;
+import com.bmo.reactivemoviesinfoservice.service.MovieInfoWriteBehindBuffer;
+import com.bmo.reactivemoviesinfoservice.tracing.ReactiveTracer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.http.codec.ServerCodecConfigurer;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MovieInfoWarmUpTest {
+
+    private WarmUpProperties properties;
+
+    private InMemoryMovieStore store;
+
+    private MovieInfoWarmUp warmUp;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WarmUpProperties();
+        properties.setEnabled(true);
+        store = new InMemoryMovieStore(1);
+        var repository = new InMemoryMovieRepository(store);
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        var tracer = new ReactiveTracer(new TracingProperties());
+        var service = new MovieInfoService(repository, validator, tracer, new MovieInfoCacheProperties(), new PaginationProperties(),
+                new BulkProperties(), new MovieInfoWriteBehindBuffer(repository, new WriteBehindProperties(), new ObjectMapper()));
+        warmUp = new MovieInfoWarmUp(properties, ServerCodecConfigurer.create(), validator, service,
+                new MovieInfoSearchService(repository, new SearchProperties(), tracer), new HttpCacheProperties(), new IdempotencyProperties(),
+                new ClientIdentity(new RateLimitProperties()));
+    }
+
+    @Test
+    void when_warm_up_runs_then_every_iteration_completes_and_leaves_no_movies_info_behind() {
+        properties.setIterations(30);
+
+        warmUp.run(new DefaultApplicationArguments());
+
+        assertEquals(30, warmUp.iterations());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void when_max_duration_is_exhausted_then_warm_up_stops_early() {
+        properties.setIterations(1_000_000);
+        properties.setMaxDuration(Duration.ZERO);
+
+        warmUp.run(new DefaultApplicationArguments());
+
+        assertEquals(0, warmUp.iterations());
+    }
+}